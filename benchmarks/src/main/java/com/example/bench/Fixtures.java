@@ -0,0 +1,62 @@
+package com.example.bench;
+
+import com.example.support.BrowserProfile;
+import com.example.support.DriverFactory;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Opens the saved pages under fixtures/ in headless Chrome.
+ *
+ * Each page ends with a {@code <template id="filler">} of app-like markup that matches none of
+ * the locators; loading a page with {@code filler > 0} stamps that many copies into
+ * {@code #filler-host}, so locators that scan the whole document can be measured against a
+ * DOM the size of the real app's.
+ */
+final class Fixtures {
+    private static final String FILL_SCRIPT =
+        "var template = document.getElementById('filler'), host = document.getElementById('filler-host');"
+            + "for (var i = 0; i < arguments[0]; i++) { host.appendChild(template.content.cloneNode(true)); }"
+            + "return document.getElementsByTagName('*').length;";
+
+    private Fixtures() {
+    }
+
+    /**
+     * A lean headless session without the suite's step timing, which would add to every call.
+     */
+    static WebDriver openBrowser() {
+        System.setProperty("taxmind.steps", "false");
+        return DriverFactory.createChrome(BrowserProfile.LEAN);
+    }
+
+    /**
+     * Load a fixture and pad it with filler blocks.
+     *
+     * @return the number of elements in the document
+     */
+    static long load(WebDriver driver, String fixture, int filler) {
+        driver.get(extract(fixture).toUri().toString());
+        return ((Number) ((JavascriptExecutor) driver).executeScript(FILL_SCRIPT, filler)).longValue();
+    }
+
+    private static Path extract(String fixture) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + fixture)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No fixture " + fixture);
+            }
+            Path file = Files.createTempFile("taxmind-bench-", "-" + fixture);
+            file.toFile().deleteOnExit();
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            return file;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to extract fixture " + fixture + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.bench;
+
+import com.example.support.TextLocator;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+
+/**
+ * The locators under test, each with the fixture page it finds something on.
+ *
+ * XPATH and CSS entries marked "as in" are copied verbatim from the page object method named;
+ * keep them in step when the page objects change. Entries marked "baseline" keep the locator a
+ * page object used before it was rewritten, to compare against; TEXT entries run the
+ * {@link TextLocator} those page objects use now, with the same terms. The other entries are
+ * rewrite candidates: CSS ones match on structure instead of text, JS ones search text with a
+ * TreeWalker or filter a querySelectorAll in the page. Rewrites can match a different set of
+ * elements (an XPath over {@code //*} also returns every ancestor of the text), which the
+ * benchmark prints at setup.
+ */
+public enum Locator {
+    /** as in SignupPage.clickApplyButton */
+    APPLY_XPATH("landing.html", Kind.XPATH,
+        "//a[contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'apply') or contains(@href, 'apply') ]"),
+    /** as in SignupPage.clickApplyButton */
+    APPLY_CSS("landing.html", Kind.CSS, "a[href*='apply']"),
+    APPLY_JS("landing.html", Kind.JS,
+        "return Array.prototype.filter.call(document.querySelectorAll('a'), function (e) {"
+            + "  return /apply/i.test(e.textContent) || (e.getAttribute('href') || '').indexOf('apply') >= 0; });"),
+
+    /** as in LoginPage.acceptCookiesIfPresent */
+    COOKIE_XPATH("landing.html", Kind.XPATH,
+        "//button[contains(translate(., 'ACCEPT', 'accept'), 'accept') or contains(., 'I agree') or contains(., 'Accept') or contains(., 'Agree') ]"),
+    /** as in LoginPage.acceptCookiesIfPresent */
+    COOKIE_CSS("landing.html", Kind.CSS, "button.cookie-accept"),
+    COOKIE_JS("landing.html", Kind.JS,
+        "return Array.prototype.filter.call(document.querySelectorAll('button'), function (e) {"
+            + "  return /accept|i agree|agree/i.test(e.textContent); });"),
+
+    /** as in LoginPage.clickLoginButton */
+    LOGIN_BUTTON_XPATH("landing.html", Kind.XPATH,
+        "//button[contains(translate(., 'LOGIN', 'login'), 'login') or contains(., 'Login') or contains(., 'Sign in') or contains(., 'Log in') ]"),
+    LOGIN_BUTTON_JS("landing.html", Kind.JS,
+        "return Array.prototype.filter.call(document.querySelectorAll('button'), function (e) {"
+            + "  return /login|sign in|log in/i.test(e.textContent); });"),
+
+    /** as in LoginPage.enterUsername */
+    EMAIL_CSS("login.html", Kind.CSS, "input[type='email']"),
+    EMAIL_XPATH("login.html", Kind.XPATH, "//input[@type='email']"),
+    EMAIL_JS("login.html", Kind.JS, "return Array.from(document.querySelectorAll(\"input[type='email']\"));"),
+
+    /** as in LoginPage.submitLogin */
+    SUBMIT_XPATH("login.html", Kind.XPATH,
+        "//button[@type='submit' and (contains(., 'Login') or contains(., 'Sign in') or contains(., 'Log in'))]"),
+    SUBMIT_CSS("login.html", Kind.CSS, "button[type='submit']"),
+    SUBMIT_JS("login.html", Kind.JS,
+        "return Array.prototype.filter.call(document.querySelectorAll(\"button[type='submit']\"), function (e) {"
+            + "  return /login|sign in|log in/i.test(e.textContent); });"),
+
+    /** as in SignupPage.fillSignupForm */
+    FULL_NAME_XPATH("signup.html", Kind.XPATH, "//span[normalize-space(.)='Full Name']/following::input[1]"),
+    FULL_NAME_JS("signup.html", Kind.JS,
+        "var inputs = document.querySelectorAll('input');"
+            + "var labels = Array.prototype.filter.call(document.querySelectorAll('span'), function (s) {"
+            + "  return s.textContent.trim().replace(/\\s+/g, ' ') === 'Full Name'; });"
+            + "return labels.length === 0 ? [] : Array.prototype.filter.call(inputs, function (i) {"
+            + "  return labels[0].compareDocumentPosition(i) & Node.DOCUMENT_POSITION_FOLLOWING; }).slice(0, 1);"),
+
+    /** baseline: SignupPage.fillSignupForm before it moved to TextLocator */
+    CONSENT_XPATH("signup.html", Kind.XPATH,
+        "//*[contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'i agree') or contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'terms & conditions') or contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'terms and conditions') or contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'consent')][not(self::script or self::style)]"),
+    CONSENT_CSS("signup.html", Kind.CSS, "input[type='checkbox']"),
+    CONSENT_JS("signup.html", Kind.JS, textSearch("/i agree|terms (&|and) conditions|consent/i")),
+    /** as in SignupPage.fillSignupForm */
+    CONSENT_TEXT("signup.html", Kind.TEXT, terms("i agree", "terms & conditions", "terms and conditions", "consent")),
+
+    /** baseline: SignupPage.waitForESignBlockPopup before it moved to TextLocator */
+    ESIGN_XPATH("signup.html", Kind.XPATH,
+        "//*[contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'e-sign') or contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'blocked') or contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'signing')]"),
+    ESIGN_CSS("signup.html", Kind.CSS, "[role='dialog'] .v-card__text"),
+    ESIGN_JS("signup.html", Kind.JS, textSearch("/e-sign|blocked|signing/i")),
+    /** as in SignupPage.waitForESignBlockPopup, without the runtime email term */
+    ESIGN_TEXT("signup.html", Kind.TEXT, terms("e-sign", "blocked", "signing"));
+
+    enum Kind { XPATH, CSS, JS, TEXT }
+
+    final String fixture;
+    final Kind kind;
+    final String expression;
+
+    Locator(String fixture, Kind kind, String expression) {
+        this.fixture = fixture;
+        this.kind = kind;
+        this.expression = expression;
+    }
+
+    @SuppressWarnings("unchecked")
+    List<WebElement> find(WebDriver driver) {
+        switch (kind) {
+            case XPATH:
+                return driver.findElements(By.xpath(expression));
+            case CSS:
+                return driver.findElements(By.cssSelector(expression));
+            case TEXT:
+                return TextLocator.containing(expression.split("\n")).find(driver);
+            default:
+                Object found = ((JavascriptExecutor) driver).executeScript(expression);
+                return found instanceof List ? (List<WebElement>) found : List.of();
+        }
+    }
+
+    /** TEXT entries keep their terms one per line */
+    private static String terms(String... terms) {
+        return String.join("\n", terms);
+    }
+
+    /**
+     * A script returning the elements whose own text matches {@code regex}, skipping scripts
+     * and styles.
+     */
+    private static String textSearch(String regex) {
+        return "var re = " + regex + ", found = [];"
+            + "var walker = document.createTreeWalker(document.body, NodeFilter.SHOW_TEXT, { acceptNode: function (n) {"
+            + "  var p = n.parentNode.nodeName;"
+            + "  return p === 'SCRIPT' || p === 'STYLE' || !re.test(n.nodeValue)"
+            + "    ? NodeFilter.FILTER_REJECT : NodeFilter.FILTER_ACCEPT; } });"
+            + "while (walker.nextNode()) {"
+            + "  if (found.indexOf(walker.currentNode.parentNode) < 0) { found.push(walker.currentNode.parentNode); }"
+            + "}"
+            + "return found;";
+    }
+}
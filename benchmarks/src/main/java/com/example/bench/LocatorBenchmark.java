@@ -0,0 +1,69 @@
+package com.example.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for one findElements (or query script) of each {@link Locator} against its fixture, as
+ * a page object would pay it: the round trip to chromedriver plus the lookup in the page.
+ * {@link RoundTripBenchmark} gives the round trip alone.
+ *
+ * filler pads the fixture with app-like blocks (33 elements each) that no locator
+ * matches; whole-document XPaths are expected to slow down with it, id and attribute lookups
+ * not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocatorBenchmark {
+    /** every constant when not narrowed with -p locator=... */
+    @Param
+    public Locator locator;
+
+    @Param({"0", "100"})
+    public int filler;
+
+    private WebDriver driver;
+
+    @Setup(Level.Trial)
+    public void open() {
+        driver = Fixtures.openBrowser();
+        long elements = Fixtures.load(driver, locator.fixture, filler);
+        int found = locator.find(driver).size();
+        if (found == 0) {
+            driver.quit();
+            throw new IllegalStateException(locator + " matches nothing in " + locator.fixture);
+        }
+        System.out.println("[bench] " + locator + " matches " + found + " of " + elements + " element(s) in "
+            + locator.fixture + " with " + filler + " filler block(s)");
+    }
+
+    @Benchmark
+    public List<WebElement> find() {
+        return locator.find(driver);
+    }
+
+    @TearDown(Level.Trial)
+    public void quit() {
+        driver.quit();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of a WebDriver call that does nothing in the page, to subtract from the
+ * {@link LocatorBenchmark} numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoundTripBenchmark {
+    private WebDriver driver;
+
+    @Setup(Level.Trial)
+    public void open() {
+        driver = Fixtures.openBrowser();
+        Fixtures.load(driver, "landing.html", 0);
+    }
+
+    @Benchmark
+    public Object emptyScript() {
+        return ((JavascriptExecutor) driver).executeScript("return null;");
+    }
+
+    @TearDown(Level.Trial)
+    public void quit() {
+        driver.quit();
+    }
+}
@@ -1,36 +1,152 @@
 package com.example;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
-import org.junit.After;
-import org.junit.Before;
+import com.example.pages.LoginPage;
+import com.example.pages.OTPPage;
+import com.example.pages.ProfilePage;
+import com.example.support.ApiCassette;
+import com.example.support.AuthSnapshot;
+import com.example.support.BrowserProfile;
+import com.example.support.DiagnosticsRule;
+import com.example.support.DriverContext;
+import com.example.support.DriverPool;
+import com.example.support.StepTimer;
+import org.junit.Rule;
+import org.junit.rules.ExternalResource;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TestName;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.nio.file.Path;
 import java.time.Duration;
 
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Base class for browser tests.
+ *
+ * Every test gets its own pooled session, bound to the thread running the test through
+ * {@link DriverContext}; nothing here is shared between tests, so test classes can run in
+ * parallel (mvn test -Pparallel). Annotate a class with
+ * {@link com.example.support.UseBrowserProfile} to launch its sessions with another
+ * {@link BrowserProfile}. With -Dtaxmind.cassette=record|replay the test's backend calls are
+ * recorded to or answered from an {@link ApiCassette} named after the test. Every page-object
+ * call is timed by {@link StepTimer}. A failing test gets a screenshot and page dump under
+ * target/diagnostics from {@link DiagnosticsRule}.
+ */
 public class BaseTest {
+    protected static final String OTP = "123456";
+
     protected WebDriver driver;
     protected WebDriverWait wait;
+    private DriverPool pool;
+    private ApiCassette cassette;
+
+    public final TestName testName = new TestName();
+
+    // the session is set up and released by a rule rather than @Before/@After, so the
+    // diagnostics capture inside it still sees the browser of a failed test
+    @Rule
+    public final RuleChain rules = RuleChain.outerRule(testName)
+        .around(new ExternalResource() {
+            @Override
+            protected void before() {
+                try {
+                    setUp();
+                } catch (RuntimeException | Error e) {
+                    // unlike @After, after() is skipped when before() throws
+                    tearDown();
+                    throw e;
+                }
+            }
 
-    @Before
-    public void setUp() {
-        WebDriverManager.chromedriver().setup();
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--start-maximized");
-        options.addArguments("--disable-blink-features=AutomationControlled");
-        options.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-        options.setExperimentalOption("excludeSwitches", new String[]{"enable-automation"});
-        options.setExperimentalOption("useAutomationExtension", false);
-        driver = new ChromeDriver(options);
+            @Override
+            protected void after() {
+                tearDown();
+            }
+        })
+        .around(new DiagnosticsRule(() -> driver));
+
+    protected void setUp() {
+        // sessions are pooled across tests; see DriverPool for how they are reset between leases
+        pool = DriverPool.shared(BrowserProfile.forTestClass(getClass()));
+        driver = pool.lease();
         wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+        DriverContext.bind(new DriverContext(driver, wait));
+        cassette = ApiCassette.start(driver, getClass().getSimpleName() + "." + testName.getMethodName());
+        StepTimer.begin(getClass().getSimpleName() + "." + testName.getMethodName());
     }
 
-    @After
-    public void tearDown() {
+    protected void tearDown() {
+        StepTimer.end();
+        DriverContext.clear();
+        if (cassette != null) {
+            cassette.stop();
+            cassette = null;
+        }
         if (driver != null) {
-            driver.quit();
+            pool.release(driver);
+            driver = null;
+        }
+    }
+
+    /**
+     * Run the full login + OTP chain from the landing page.
+     */
+    protected void loginWithOtp(String siteUrl, String email, String password) {
+        LoginPage loginPage = new LoginPage(driver, wait);
+        OTPPage otpPage = new OTPPage(driver, wait);
+
+        loginPage.open(siteUrl);
+        loginPage.acceptCookiesIfPresent();
+        loginPage.clickLoginButton();
+        loginPage.enterUsername(email);
+        loginPage.enterPassword(password);
+        loginPage.submitLogin();
+
+        otpPage.enterOtp(OTP);
+        otpPage.submitOtp();
+    }
+
+    /**
+     * Save the current authenticated state so later tests can skip the login chain.
+     */
+    protected void saveAuthSnapshot(String email) {
+        AuthSnapshot.capture(driver, AuthSnapshot.defaultTtl()).save(AuthSnapshot.fileFor(email));
+    }
+
+    /**
+     * Start the test logged in at /profile. Restores a saved auth snapshot when one is
+     * available and only falls back to a real login when the app rejects it.
+     *
+     * Parallel tests for the same user queue up here, so only the first of them logs in and
+     * the rest restore the snapshot it saved.
+     */
+    protected void startAuthenticated(String siteUrl, String email, String password) {
+        synchronized (AuthSnapshot.lockFor(email)) {
+            ProfilePage profilePage = new ProfilePage(driver, wait);
+            Path snapshotFile = AuthSnapshot.fileFor(email);
+            AuthSnapshot snapshot = AuthSnapshot.load(snapshotFile);
+            // a snapshot from another site (e.g. dev vs the stand-in server) is no use here
+            if (snapshot != null && siteUrl.startsWith(snapshot.getOrigin())) {
+                try {
+                    snapshot.restore(driver);
+                    driver.navigate().to(snapshot.getOrigin() + "/profile");
+                    if (profilePage.isAtProfile()) {
+                        System.out.println("Restored authenticated session from " + snapshotFile);
+                        return;
+                    }
+                    System.out.println("Restored session was rejected, falling back to a real login");
+                } catch (RuntimeException e) {
+                    System.out.println("Could not restore session (" + e.getMessage() + "), falling back to a real login");
+                }
+            }
+
+            loginWithOtp(siteUrl, email, password);
+            boolean atProfile = profilePage.isAtProfile();
+            System.out.println("At profile: " + atProfile);
+            assertTrue("Expected to land on profile page after OTP", atProfile);
+            saveAuthSnapshot(email);
         }
     }
 }
@@ -1,6 +1,7 @@
 package com.example;
 
 import com.example.pages.*;
+import com.example.support.TestSite;
 import org.junit.Test;
 
 import java.util.HashMap;
@@ -11,34 +12,16 @@ import static org.junit.Assert.assertTrue;
 public class MenuNavigationTest extends BaseTest {
     private static final String EMAIL = "jishnu+1@ileafsolutions.com";
     private static final String PASSWORD = "Test@123";
-    private static final String SITE_URL = "https://dev.taxmind.ie/";
+    private static final String SITE_URL = TestSite.baseUrl();
 
     @Test
     public void testAllMenuNavigation() {
-        LoginPage loginPage = new LoginPage(driver, wait);
-        OTPPage otpPage = new OTPPage(driver, wait);
-        ProfilePage profilePage = new ProfilePage(driver, wait);
         MenuPage menuPage = new MenuPage(driver, wait);
 
         try {
-            // Login flow
-            System.out.println("=== Starting Login Flow ===");
-            loginPage.open(SITE_URL);
-            loginPage.acceptCookiesIfPresent();
-            loginPage.clickLoginButton();
-            loginPage.enterUsername(EMAIL);
-            loginPage.enterPassword(PASSWORD);
-            loginPage.submitLogin();
-
-            // Enter OTP
-            System.out.println("=== Entering OTP ===");
-            otpPage.enterOtp("123456");
-            otpPage.submitOtp();
-
-            // Verify profile
-            boolean atProfile = profilePage.isAtProfile();
-            System.out.println("At profile: " + atProfile);
-            assertTrue("Expected to land on profile page after OTP", atProfile);
+            // Start logged in (restores a saved session, logs in for real only if needed)
+            System.out.println("=== Starting Authenticated Session ===");
+            startAuthenticated(SITE_URL, EMAIL, PASSWORD);
 
             // Now test menu navigation
             System.out.println("\n=== Starting Menu Navigation Test ===");
@@ -2,23 +2,21 @@ package com.example;
 
 import com.example.pages.LoginPage;
 import com.example.pages.SignupPage;
+import com.example.support.BrowserProfile;
+import com.example.support.TestSite;
+import com.example.support.UiIdle;
+import com.example.support.UseBrowserProfile;
 import org.junit.Test;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
-
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 
 import static org.junit.Assert.assertTrue;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 import java.util.List;
 
+// the signup flow only needs the DOM, not pixels or analytics
+@UseBrowserProfile(BrowserProfile.LEAN)
 public class SignupTest extends BaseTest {
-    private static final String SITE_URL = "https://dev.taxmind.ie/";
+    private static final String SITE_URL = TestSite.baseUrl();
 
     @Test
     public void testSignupFlow() {
@@ -50,8 +48,8 @@ public class SignupTest extends BaseTest {
             // Enter once then submit; if there are two separate steps the second enter will be attempted too.
             sp.enterOtp("123456");
             sp.submitOtpIfPresent();
-            // small wait for second OTP step if any
-            try { Thread.sleep(800); } catch (InterruptedException ignored) {}
+            // let the second OTP step render, if there is one
+            UiIdle.waitForUiIdle(driver);
             sp.enterOtp("123456");
             sp.submitOtpIfPresent();
 
@@ -74,33 +72,6 @@ public class SignupTest extends BaseTest {
                     System.out.println("[diagnostic] Error checking page state: " + e.getMessage());
                 }
 
-            if (!blocked) {
-                // Save screenshot and page source for debugging
-                try {
-                    long now = System.currentTimeMillis();
-                    Path outDir = Paths.get("target/surefire-reports/signup-diagnostics");
-                    Files.createDirectories(outDir);
-
-                    if (driver instanceof TakesScreenshot) {
-                        File scr = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-                        Path dest = outDir.resolve("signup-failure-" + now + ".png");
-                        Files.copy(scr.toPath(), dest);
-                        System.out.println("Saved screenshot to: " + dest.toAbsolutePath());
-                    }
-
-                    try {
-                        String page = driver.getPageSource();
-                        Path html = outDir.resolve("signup-failure-" + now + ".html");
-                        Files.writeString(html, page);
-                        System.out.println("Saved page source to: " + html.toAbsolutePath());
-                    } catch (IOException ioe) {
-                        System.out.println("Failed saving page source: " + ioe.getMessage());
-                    }
-                } catch (Exception e1) {
-                    System.out.println("Failed to capture diagnostics: " + e1.getMessage());
-                }
-            }
-
             assertTrue("Expected e-sign block popup mentioning " + email, blocked);
         } catch (Exception e) {
             e.printStackTrace();
@@ -3,6 +3,7 @@ package com.example;
 import com.example.pages.LoginPage;
 import com.example.pages.OTPPage;
 import com.example.pages.ProfilePage;
+import com.example.support.TestSite;
 import org.junit.Test;
 import org.openqa.selenium.WebElement;
 
@@ -14,7 +15,7 @@ import static org.junit.Assert.assertTrue;
 public class TaxMindTest extends BaseTest {
     private static final String EMAIL = "jishnu+1@ileafsolutions.com";
     private static final String PASSWORD = "Test@123";
-    private static final String SITE_URL = "https://dev.taxmind.ie/";
+    private static final String SITE_URL = TestSite.baseUrl();
 
     @Test
     public void testLoginFlow() {
@@ -38,6 +39,8 @@ public class TaxMindTest extends BaseTest {
             boolean atProfile = profilePage.isAtProfile();
             System.out.println("At profile: " + atProfile);
             assertTrue("Expected to land on profile page after OTP", atProfile);
+            // let the other suites start from this session instead of logging in again
+            saveAuthSnapshot(EMAIL);
 
             // navigate to Applications and continue 2026 application
             ApplicationPage appPage = new ApplicationPage(driver, wait);
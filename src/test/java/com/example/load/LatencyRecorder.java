@@ -0,0 +1,133 @@
+package com.example.load;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latency samples per step of a load run, with percentiles and throughput.
+ *
+ * Journeys that started before the steady-state window (i.e. during ramp-up) are dropped as
+ * a whole, every step included, so the percentiles describe the app under the full load and
+ * each step is counted over the same journeys.
+ */
+public final class LatencyRecorder {
+    private static final Json JSON = new Json();
+
+    private final long steadyFrom;
+    /** step -> durations in nanos of successful samples, in recording order */
+    private final Map<String, List<Long>> samples = new LinkedHashMap<>();
+    private final Map<String, Integer> errors = new LinkedHashMap<>();
+
+    /**
+     * @param steadyFrom System.nanoTime() at which the steady-state window starts
+     */
+    public LatencyRecorder(long steadyFrom) {
+        this.steadyFrom = steadyFrom;
+    }
+
+    /**
+     * Whether samples of a journey that started at {@code journeyStartNanos} are kept.
+     */
+    public boolean counts(long journeyStartNanos) {
+        return journeyStartNanos >= steadyFrom;
+    }
+
+    /**
+     * Record one step that started at {@code startNanos} and just ended, as part of the
+     * journey that started at {@code journeyStartNanos}.
+     */
+    public synchronized void record(String step, long journeyStartNanos, long startNanos, boolean ok) {
+        long duration = System.nanoTime() - startNanos;
+        if (!counts(journeyStartNanos)) {
+            return;
+        }
+        samples.computeIfAbsent(step, k -> new ArrayList<>());
+        if (ok) {
+            samples.get(step).add(duration);
+        } else {
+            errors.merge(step, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Count a failure that has no meaningful duration, e.g. a browser that never started. Counted
+     * whenever it happens.
+     */
+    public synchronized void error(String step) {
+        samples.computeIfAbsent(step, k -> new ArrayList<>());
+        errors.merge(step, 1, Integer::sum);
+    }
+
+    /**
+     * One row per step: count, errors, p50/p95/p99/max in ms and completions per second over
+     * the steady-state window.
+     */
+    public synchronized List<Map<String, Object>> summary(double steadySeconds) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map.Entry<String, List<Long>> entry : samples.entrySet()) {
+            long[] sorted = entry.getValue().stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("step", entry.getKey());
+            row.put("count", sorted.length);
+            row.put("errors", errors.getOrDefault(entry.getKey(), 0));
+            row.put("p50Ms", percentile(sorted, 50));
+            row.put("p95Ms", percentile(sorted, 95));
+            row.put("p99Ms", percentile(sorted, 99));
+            row.put("maxMs", sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000L);
+            row.put("perSecond", Math.round(sorted.length / Math.max(steadySeconds, 0.001) * 100) / 100.0);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Print the summary and write it to {@code <base>.json} and {@code <base>.csv}.
+     */
+    public void report(String title, double steadySeconds, Path base) {
+        List<Map<String, Object>> rows = summary(steadySeconds);
+        StringBuilder out = new StringBuilder("[load] " + title);
+        out.append(String.format("%n[load] %-16s %7s %7s %8s %8s %8s %8s %8s",
+            "step", "count", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms", "per s"));
+        StringBuilder csv = new StringBuilder("step,count,errors,p50Ms,p95Ms,p99Ms,maxMs,perSecond\n");
+        for (Map<String, Object> row : rows) {
+            out.append(String.format("%n[load] %-16s %7d %7d %8d %8d %8d %8d %8.2f",
+                row.get("step"), row.get("count"), row.get("errors"), row.get("p50Ms"), row.get("p95Ms"),
+                row.get("p99Ms"), row.get("maxMs"), row.get("perSecond")));
+            csv.append(String.join(",", row.values().stream().map(String::valueOf).toArray(String[]::new))).append('\n');
+        }
+        System.out.println(out);
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("title", title);
+        json.put("steadySeconds", steadySeconds);
+        json.put("steps", rows);
+        try {
+            Files.createDirectories(base.toAbsolutePath().getParent());
+            Files.write(Path.of(base + ".json"), JSON.toJson(json).getBytes(StandardCharsets.UTF_8));
+            Files.write(Path.of(base + ".csv"), csv.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.out.println("[load] Failed to write report " + base + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Nearest-rank percentile of sorted nanos, in ms.
+     */
+    static long percentile(long[] sorted, int p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)] / 1_000_000L;
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.load;
+
+import com.example.pages.ApplicationPage;
+import com.example.pages.LoginPage;
+import com.example.pages.OTPPage;
+import com.example.pages.ProfilePage;
+import com.example.pages.QuestionnairePage;
+import com.example.support.BrowserProfile;
+import com.example.support.DriverContext;
+import com.example.support.DriverPool;
+import com.example.support.SessionOrchestrator;
+import com.example.support.TestSite;
+import org.junit.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives N concurrent headless users through the login -> OTP -> applications ->
+ * questionnaire journey of {@code TaxMindTest.testLoginFlow}, with the same page objects and
+ * the step names of {@link Scenario#LOGIN_TO_QUESTIONNAIRE}.
+ *
+ * Users start evenly spread over the ramp-up, each as a {@link SessionOrchestrator} workflow
+ * on a virtual thread with its own pooled browser, then repeat the journey until the
+ * steady-state window has passed. Every step is timed; the report (p50/p95/p99 per step, journeys per
+ * second) covers the steady-state window only and is written to target/load-report.json and
+ * .csv. Run it with {@code mvn test -Pload -Dtaxmind.site=standin} to load the local stand-in
+ * server instead of dev, or from an IDE through {@link #main(String[])}.
+ *
+ * Settings: -Dtaxmind.load.users (5), -Dtaxmind.load.rampUp seconds (10),
+ * -Dtaxmind.load.duration steady-state seconds (60), -Dtaxmind.load.thinkMs pause between
+ * steps (0), -Dtaxmind.load.email / -Dtaxmind.load.password (the TaxMindTest account).
+ */
+public class LoadRunner {
+    private static final String OTP = "123456";
+
+    private final int users = Integer.getInteger("taxmind.load.users", 5);
+    private final Duration rampUp = Duration.ofSeconds(Long.getLong("taxmind.load.rampUp", 10));
+    private final Duration steady = Duration.ofSeconds(Long.getLong("taxmind.load.duration", 60));
+    private final long thinkMs = Long.getLong("taxmind.load.thinkMs", 0);
+    private final String email = System.getProperty("taxmind.load.email", "jishnu+1@ileafsolutions.com");
+    private final String password = System.getProperty("taxmind.load.password", "Test@123");
+    private final String siteUrl = TestSite.baseUrl();
+
+    public static void main(String[] args) {
+        new LoadRunner().run();
+    }
+
+    @Test
+    public void run() {
+        DriverPool pool = DriverPool.shared(BrowserProfile.LEAN);
+        long start = System.nanoTime();
+        long steadyFrom = start + rampUp.toNanos();
+        long stopAt = steadyFrom + steady.toNanos();
+        LatencyRecorder recorder = new LatencyRecorder(steadyFrom);
+        AtomicInteger journeys = new AtomicInteger();
+
+        System.out.println("[load] " + users + " user(s) against " + siteUrl + ", ramp-up " + rampUp.getSeconds()
+            + "s, steady state " + steady.getSeconds() + "s");
+        // a tolerant orchestrator: one user failing to start a browser must not stop the others
+        try (SessionOrchestrator orchestrator = SessionOrchestrator.tolerant(pool, null)) {
+            for (int i = 0; i < users; i++) {
+                if (!Pacing.sleepUntil(start + rampUp.toNanos() * i / Math.max(1, users))) {
+                    break;
+                }
+                orchestrator.fork("load-user-" + (i + 1), session -> {
+                    runUser(session, stopAt, recorder, journeys);
+                    return null;
+                });
+            }
+            for (SessionOrchestrator.Task<?> user : orchestrator.join().tasks()) {
+                if (user.state() == SessionOrchestrator.State.FAILED) {
+                    System.out.println("[load] " + user.name() + " stopped: " + user.failure());
+                    recorder.error("session");
+                }
+            }
+        }
+
+        String title = users + " user(s), " + journeys.get() + " journey(s) completed in the steady state of "
+            + steady.getSeconds() + "s against " + siteUrl;
+        recorder.report(title, steady.toMillis() / 1000.0, Paths.get("target", "load-report"));
+        boolean anyCompleted = recorder.summary(steady.toMillis() / 1000.0).stream()
+            .anyMatch(row -> "journey".equals(row.get("step")) && ((Integer) row.get("count")) > 0);
+        assertTrue("No journey completed during the steady-state window", anyCompleted);
+    }
+
+    private void runUser(DriverContext session, long stopAt, LatencyRecorder recorder, AtomicInteger journeys) {
+        WebDriver driver = session.driver();
+        while (System.nanoTime() < stopAt && !Thread.currentThread().isInterrupted()) {
+            long journeyStart = System.nanoTime();
+            boolean ok = journey(driver, session.waiter(), recorder, journeyStart);
+            recorder.record("journey", journeyStart, journeyStart, ok);
+            if (ok && recorder.counts(journeyStart)) {
+                journeys.incrementAndGet();
+            }
+            signOut(driver);
+        }
+    }
+
+    /**
+     * One pass through the journey; stops at the first failing step.
+     */
+    private boolean journey(WebDriver driver, WebDriverWait wait, LatencyRecorder recorder, long journeyStart) {
+        LoginPage loginPage = new LoginPage(driver, wait);
+        OTPPage otpPage = new OTPPage(driver, wait);
+        ProfilePage profilePage = new ProfilePage(driver, wait);
+        ApplicationPage appPage = new ApplicationPage(driver, wait);
+        QuestionnairePage questionnaire = new QuestionnairePage(driver, wait);
+        WebElement[] application = new WebElement[1];
+
+        return step(recorder, journeyStart, Scenario.OPEN, () -> {
+                loginPage.open(siteUrl);
+                loginPage.acceptCookiesIfPresent();
+                return true;
+            })
+            && step(recorder, journeyStart, Scenario.LOGIN, () -> {
+                loginPage.clickLoginButton();
+                loginPage.enterUsername(email);
+                loginPage.enterPassword(password);
+                loginPage.submitLogin();
+                return true;
+            })
+            && step(recorder, journeyStart, Scenario.OTP, () -> {
+                otpPage.enterOtp(OTP);
+                otpPage.submitOtp();
+                return profilePage.isAtProfile();
+            })
+            && step(recorder, journeyStart, Scenario.APPLICATIONS, () -> {
+                appPage.openApplicationsFromProfile();
+                application[0] = appPage.findApplicationForYear("2026");
+                return application[0] != null;
+            })
+            && step(recorder, journeyStart, Scenario.QUESTIONNAIRE, () -> {
+                appPage.continueApplication(application[0]);
+                questionnaire.fillMandatoryQuestions();
+                questionnaire.submitQuestionnaire();
+                return true;
+            });
+    }
+
+    private interface Step {
+        boolean run() throws Exception;
+    }
+
+    private boolean step(LatencyRecorder recorder, long journeyStart, String name, Step step) {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            ok = step.run();
+        } catch (Exception e) {
+            System.out.println("[load] " + Thread.currentThread().getName() + " failed at " + name + ": " + e.getMessage());
+            ok = false;
+        }
+        recorder.record(name, journeyStart, start, ok);
+        if (ok && thinkMs > 0) {
+            try {
+                Thread.sleep(thinkMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return ok;
+    }
+
+    /**
+     * Drop the session so the next journey starts logged out.
+     */
+    private static void signOut(WebDriver driver) {
+        try {
+            ((JavascriptExecutor) driver).executeScript(
+                "try { window.localStorage.clear(); } catch (e) {}"
+                    + "try { window.sessionStorage.clear(); } catch (e) {}");
+            driver.manage().deleteAllCookies();
+        } catch (Exception ignored) {
+        }
+    }
+}
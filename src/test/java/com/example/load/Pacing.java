@@ -0,0 +1,28 @@
+package com.example.load;
+
+/**
+ * Timing helpers shared by the load drivers.
+ */
+final class Pacing {
+    private Pacing() {
+    }
+
+    /**
+     * Sleep until the given {@link System#nanoTime()} instant; returns at once if it has passed.
+     *
+     * @return false if the thread was interrupted while waiting (the interrupt flag is restored)
+     */
+    static boolean sleepUntil(long nanoTime) {
+        long wait = nanoTime - System.nanoTime();
+        if (wait <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(wait / 1_000_000L, (int) (wait % 1_000_000L));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
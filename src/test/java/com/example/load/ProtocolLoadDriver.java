@@ -0,0 +1,353 @@
+package com.example.load;
+
+import com.example.support.ApiCassette;
+import com.example.support.ApiCassette.Interaction;
+import com.example.support.TestSite;
+import org.junit.Test;
+import org.openqa.selenium.json.Json;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Replays the backend calls behind the login -> OTP -> applications -> questionnaire journey
+ * straight over HTTP, one virtual thread per user, so a single machine can hold thousands of
+ * users where {@link LoadRunner} needs a browser each.
+ *
+ * The calls come from a cassette recorded by a browser run
+ * ({@code mvn test -Dtest=TaxMindTest#testLoginFlow -Dtaxmind.cassette=record}): the ones made
+ * to the app's own origin are sent in order, with the ${email}, ${password} and ${otp}
+ * placeholders filled in, and grouped into the steps of {@link Scenario#LOGIN_TO_QUESTIONNAIRE}
+ * so the report lines up with the browser run's. Every user keeps its own cookies, and the
+ * request headers the app set are sent along with them. Credentials in those headers were
+ * recorded as placeholders: "Bearer ${token}" is filled from the last token-like field
+ * (token, access_token, idToken, jwt...) of a JSON response, at any depth, or from an
+ * authorization response header; other ${name} headers from a response header or JSON field
+ * of that name. A header whose placeholder has no value yet (before login) is left out.
+ * Tokens that are only handed over some other way, e.g. written to localStorage by page
+ * scripts, are not picked up. A response whose status class differs from the recorded one
+ * fails the step. Ramp-up, steady state,
+ * think time and the report (target/protocol-load-report.json and .csv) work as in
+ * {@link LoadRunner}.
+ *
+ * Run it with {@code mvn test -Pprotocol-load}; against the local stand-in server with
+ * {@code -Dtaxmind.site=standin -Dtaxmind.protocol.cassette=src/test/resources/cassettes/standin-journey.json}.
+ *
+ * Settings: -Dtaxmind.protocol.users (200), -Dtaxmind.protocol.cassette (the recorded
+ * TaxMindTest.testLoginFlow), -Dtaxmind.protocol.target origin (taxmind.site when set, else
+ * the recorded origin), -Dtaxmind.protocol.email where {n} becomes the user number
+ * (taxmind.load.email), plus taxmind.load.rampUp, duration, thinkMs and password.
+ */
+public class ProtocolLoadDriver {
+    private static final String OTP = "123456";
+    private static final Json JSON = new Json();
+    /** JSON response fields taken as the bearer token */
+    private static final Pattern TOKEN_FIELDS = Pattern.compile("(?i)((access|id|auth|bearer)_?)?token|jwt");
+    /** response headers whose values are kept for ${name} placeholders */
+    private static final Pattern CREDENTIAL_HEADERS = Pattern.compile("(?i)authorization|.*(token|session|api-?key).*");
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{[^}]+}");
+    /** headers already reported as dropped for an unfilled placeholder, so each is logged once */
+    private static final Set<String> DROPPED_HEADERS = ConcurrentHashMap.newKeySet();
+
+    private final Scenario scenario = Scenario.LOGIN_TO_QUESTIONNAIRE;
+    private final int users = Integer.getInteger("taxmind.protocol.users", 200);
+    private final Duration rampUp = Duration.ofSeconds(Long.getLong("taxmind.load.rampUp", 10));
+    private final Duration steady = Duration.ofSeconds(Long.getLong("taxmind.load.duration", 60));
+    private final long thinkMs = Long.getLong("taxmind.load.thinkMs", 0);
+    private final String email = System.getProperty("taxmind.protocol.email",
+        System.getProperty("taxmind.load.email", "jishnu+1@ileafsolutions.com"));
+    private final String password = System.getProperty("taxmind.load.password", "Test@123");
+
+    public static void main(String[] args) {
+        new ProtocolLoadDriver().run();
+    }
+
+    @Test
+    public void run() {
+        String cassette = System.getProperty("taxmind.protocol.cassette");
+        Path file = cassette == null || cassette.isEmpty()
+            ? ApiCassette.fileFor("TaxMindTest.testLoginFlow") : Paths.get(cassette);
+        List<Interaction> calls = callsToMainOrigin(ApiCassette.load(file));
+        assertTrue("Cassette " + file + " has no calls to replay", !calls.isEmpty());
+        String target = target(calls.get(0).origin);
+        List<String> steps = scenario.assign(calls.stream().map(call -> call.path).collect(Collectors.toList()));
+        for (Interaction call : calls) {
+            if (!"GET".equals(call.method) && call.requestBody == null && !"-".equals(call.requestHash)) {
+                System.out.println("[protocol] " + call.method + " " + call.path
+                    + " has no stored request body (recorded before format 2?); it is sent empty");
+            }
+        }
+        if (calls.stream().allMatch(call -> call.requestHeaders.isEmpty())) {
+            System.out.println("[protocol] " + file + " has no request headers (recorded before format 3?);"
+                + " only cookies carry the session");
+        }
+
+        long start = System.nanoTime();
+        long steadyFrom = start + rampUp.toNanos();
+        long stopAt = steadyFrom + steady.toNanos();
+        LatencyRecorder recorder = new LatencyRecorder(steadyFrom);
+        AtomicInteger journeys = new AtomicInteger();
+
+        System.out.println("[protocol] " + users + " virtual user(s) replaying " + calls.size() + " call(s) from "
+            + file + " against " + target + ", ramp-up " + rampUp.getSeconds() + "s, steady state "
+            + steady.getSeconds() + "s");
+        // the client gets its own executor: closing the users' one shuts it down before it waits
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor();
+             ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                .executor(clientThreads)
+                .connectTimeout(Duration.ofSeconds(10))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+            for (int i = 0; i < users; i++) {
+                long startAt = start + rampUp.toNanos() * i / Math.max(1, users);
+                int user = i + 1;
+                threads.submit(() -> runUser(client, target, calls, steps, user, startAt, stopAt, recorder, journeys));
+            }
+        }
+
+        String title = users + " virtual user(s), " + journeys.get() + " journey(s) completed in the steady state of "
+            + steady.getSeconds() + "s against " + target;
+        recorder.report(title, steady.toMillis() / 1000.0, Paths.get("target", "protocol-load-report"));
+        boolean anyCompleted = recorder.summary(steady.toMillis() / 1000.0).stream()
+            .anyMatch(row -> "journey".equals(row.get("step")) && ((Integer) row.get("count")) > 0);
+        assertTrue("No journey completed during the steady-state window", anyCompleted);
+    }
+
+    private void runUser(HttpClient client, String target, List<Interaction> calls, List<String> steps, int user,
+                         long startAt, long stopAt, LatencyRecorder recorder, AtomicInteger journeys) {
+        if (!Pacing.sleepUntil(startAt)) {
+            return;
+        }
+        Map<String, String> values = Map.of(
+            "email", email.replace("{n}", String.valueOf(user)),
+            "username", email.replace("{n}", String.valueOf(user)),
+            "password", password,
+            "otp", OTP,
+            "code", OTP);
+        while (System.nanoTime() < stopAt && !Thread.currentThread().isInterrupted()) {
+            // a fresh cookie jar and fresh tokens per journey, like LoadRunner's sign-out
+            Map<String, String> cookies = new LinkedHashMap<>();
+            Map<String, String> journeyValues = new HashMap<>(values);
+            long journeyStart = System.nanoTime();
+            boolean ok = journey(client, target, calls, steps, journeyValues, cookies, user, recorder, journeyStart);
+            recorder.record("journey", journeyStart, journeyStart, ok);
+            if (ok && recorder.counts(journeyStart)) {
+                journeys.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * One pass through the recorded calls, step by step; stops at the first failing step.
+     */
+    private boolean journey(HttpClient client, String target, List<Interaction> calls, List<String> steps,
+                            Map<String, String> values, Map<String, String> cookies, int user, LatencyRecorder recorder,
+                            long journeyStart) {
+        int i = 0;
+        while (i < calls.size()) {
+            String step = steps.get(i);
+            long start = System.nanoTime();
+            boolean ok = true;
+            for (; i < calls.size() && steps.get(i).equals(step); i++) {
+                Interaction call = calls.get(i);
+                try {
+                    int status = send(client, target, call, values, cookies);
+                    if (status / 100 != call.status / 100) {
+                        System.out.println("[protocol] user " + user + " failed at " + step + ": " + call.method + " "
+                            + call.path + " returned " + status + ", recorded " + call.status);
+                        ok = false;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    ok = false;
+                } catch (Exception e) {
+                    System.out.println("[protocol] user " + user + " failed at " + step + ": " + call.method + " "
+                        + call.path + ": " + e);
+                    ok = false;
+                }
+                if (!ok) {
+                    break;
+                }
+            }
+            recorder.record(step, journeyStart, start, ok);
+            if (!ok) {
+                return false;
+            }
+            if (thinkMs > 0) {
+                try {
+                    Thread.sleep(thinkMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int send(HttpClient client, String target, Interaction call, Map<String, String> values,
+                            Map<String, String> cookies) throws Exception {
+        String body = call.requestBody == null ? null : fill(call.requestBody, values);
+        String unfilled = unfilled(body);
+        if (unfilled != null) {
+            throw new IllegalStateException("request body has no value for " + unfilled);
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(target + call.path))
+            .timeout(Duration.ofSeconds(30))
+            .method(call.method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (body != null) {
+            request.header("Content-Type", call.requestContentType == null ? "application/json" : call.requestContentType);
+        }
+        for (Map.Entry<String, String> header : call.requestHeaders.entrySet()) {
+            String value = fill(header.getValue(), values);
+            String missing = unfilled(value);
+            if (missing == null) {
+                request.header(header.getKey(), value);
+            } else if (DROPPED_HEADERS.add(call.method + " " + call.path + " " + header.getKey())) {
+                System.out.println("[protocol] Sending " + call.method + " " + call.path + " without its "
+                    + header.getKey() + " header: no value for " + missing);
+            }
+        }
+        if (!cookies.isEmpty()) {
+            request.header("Cookie", cookies.entrySet().stream()
+                .map(cookie -> cookie.getKey() + "=" + cookie.getValue())
+                .collect(Collectors.joining("; ")));
+        }
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        for (String setCookie : response.headers().allValues("set-cookie")) {
+            String pair = setCookie.split(";", 2)[0];
+            int eq = pair.indexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+            String name = pair.substring(0, eq).trim();
+            String value = pair.substring(eq + 1).trim();
+            if (value.isEmpty() || setCookie.toLowerCase().contains("max-age=0")) {
+                cookies.remove(name);
+            } else {
+                cookies.put(name, value);
+            }
+        }
+        learnCredentials(response, values);
+        return response.statusCode();
+    }
+
+    /**
+     * Keep the tokens a response hands out, for the ${...} placeholders of later request headers.
+     */
+    private static void learnCredentials(HttpResponse<String> response, Map<String, String> values) {
+        response.headers().map().forEach((name, list) -> {
+            String header = name.toLowerCase();
+            if (!list.isEmpty() && !header.equals("set-cookie") && CREDENTIAL_HEADERS.matcher(header).matches()) {
+                String value = list.get(0);
+                values.put(header, value);
+                if (header.equals("authorization")) {
+                    values.put("token", value.substring(value.indexOf(' ') + 1));
+                }
+            }
+        });
+        String body = response.body().trim();
+        if (body.startsWith("{") || body.startsWith("[")) {
+            try {
+                learnFields(JSON.toType(body, Json.OBJECT_TYPE), values);
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void learnFields(Object json, Map<String, String> values) {
+        if (json instanceof Map) {
+            ((Map<String, Object>) json).forEach((key, value) -> {
+                if (value instanceof String && !((String) value).isEmpty()
+                    && (TOKEN_FIELDS.matcher(key).matches() || CREDENTIAL_HEADERS.matcher(key).matches())) {
+                    values.put(key, (String) value);
+                    if (TOKEN_FIELDS.matcher(key).matches()) {
+                        values.put("token", (String) value);
+                    }
+                } else {
+                    learnFields(value, values);
+                }
+            });
+        } else if (json instanceof List) {
+            for (Object item : (List<Object>) json) {
+                learnFields(item, values);
+            }
+        }
+    }
+
+    /**
+     * Replace ${name} placeholders in a JSON body with JSON-escaped values.
+     */
+    static String fill(String body, Map<String, String> values) {
+        String filled = body;
+        for (Map.Entry<String, String> value : values.entrySet()) {
+            String escaped = value.getValue().replace("\\", "\\\\").replace("\"", "\\\"");
+            filled = filled.replace("${" + value.getKey() + "}", escaped);
+        }
+        return filled;
+    }
+
+    /**
+     * The first ${name} placeholder left in a filled text, or null if there is none.
+     */
+    static String unfilled(String filled) {
+        if (filled == null) {
+            return null;
+        }
+        Matcher matcher = PLACEHOLDER.matcher(filled);
+        return matcher.find() ? matcher.group() : null;
+    }
+
+    /**
+     * The calls made to the origin most of the cassette's calls went to, i.e. the app's own
+     * backend rather than analytics or third-party widgets.
+     */
+    private static List<Interaction> callsToMainOrigin(List<Interaction> all) {
+        Map<String, Long> perOrigin = all.stream()
+            .filter(call -> call.origin != null)
+            .collect(Collectors.groupingBy(call -> call.origin, LinkedHashMap::new, Collectors.counting()));
+        if (perOrigin.isEmpty()) {
+            // version 1 cassettes do not know where each call went
+            return all;
+        }
+        String main = perOrigin.entrySet().stream().max(Map.Entry.comparingByValue()).get().getKey();
+        List<Interaction> calls = new ArrayList<>();
+        for (Interaction call : all) {
+            if (call.origin == null || main.equals(call.origin)) {
+                calls.add(call);
+            }
+        }
+        return calls;
+    }
+
+    private static String target(String recordedOrigin) {
+        String target = System.getProperty("taxmind.protocol.target");
+        if (target == null || target.isEmpty()) {
+            target = System.getProperty("taxmind.site") != null || recordedOrigin == null
+                ? TestSite.baseUrl() : recordedOrigin;
+        }
+        return target.endsWith("/") ? target.substring(0, target.length() - 1) : target;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.load;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The steps of a load journey, shared by the browser ({@link LoadRunner}) and protocol
+ * ({@link ProtocolLoadDriver}) drivers so their reports line up step for step.
+ *
+ * For protocol replays each step also names the backend calls that begin it: a recorded call
+ * whose path matches a later step's marker moves the journey on to that step, and every call
+ * after it belongs there until the next marker.
+ */
+public final class Scenario {
+    public static final String OPEN = "open";
+    public static final String LOGIN = "login";
+    public static final String OTP = "otp";
+    public static final String APPLICATIONS = "applications";
+    public static final String QUESTIONNAIRE = "questionnaire";
+
+    /** TaxMindTest.testLoginFlow: landing page, login, OTP, applications list, questionnaire. */
+    public static final Scenario LOGIN_TO_QUESTIONNAIRE = new Scenario("login-to-questionnaire",
+        new Step(OPEN, null),
+        new Step(LOGIN, "(?i).*/(auth/)?(login|signin|token).*"),
+        new Step(OTP, "(?i).*(otp|verify|2fa|mfa).*"),
+        new Step(APPLICATIONS, "(?i).*application.*"),
+        new Step(QUESTIONNAIRE, "(?i).*questionnaire.*"));
+
+    private final String name;
+    private final List<Step> steps;
+
+    private Scenario(String name, Step... steps) {
+        this.name = name;
+        this.steps = Arrays.asList(steps);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public List<String> steps() {
+        List<String> names = new ArrayList<>();
+        for (Step step : steps) {
+            names.add(step.name);
+        }
+        return names;
+    }
+
+    /**
+     * The step each recorded call belongs to, in order. Calls before the first marker belong
+     * to the first step; when several later steps match, the furthest one wins.
+     */
+    public List<String> assign(List<String> paths) {
+        List<String> assigned = new ArrayList<>();
+        int current = 0;
+        for (String path : paths) {
+            for (int i = steps.size() - 1; i > current; i--) {
+                Pattern marker = steps.get(i).marker;
+                if (marker != null && marker.matcher(path).matches()) {
+                    current = i;
+                    break;
+                }
+            }
+            assigned.add(steps.get(current).name);
+        }
+        return assigned;
+    }
+
+    private static final class Step {
+        final String name;
+        final Pattern marker;
+
+        Step(String name, String marker) {
+            this.name = name;
+            this.marker = marker == null ? null : Pattern.compile(marker);
+        }
+    }
+}
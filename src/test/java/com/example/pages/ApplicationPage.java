@@ -1,5 +1,10 @@
 package com.example.pages;
 
+import com.example.support.DriverContext;
+import com.example.support.NetworkTracker;
+import com.example.support.PageTiming;
+import com.example.support.SelectorChain;
+import com.example.support.UiIdle;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -17,15 +22,24 @@ public class ApplicationPage {
         this.wait = wait;
     }
 
+    /**
+     * Build the page for the driver bound to the calling thread.
+     */
+    public ApplicationPage() {
+        this(DriverContext.current().driver(), DriverContext.current().waiter());
+    }
+
     public void openApplicationsFromProfile() {
         // First, try direct navigation to /application endpoint
         try {
             String currentUrl = driver.getCurrentUrl();
             String baseUrl = currentUrl.replaceAll("(/profile.*|/$)", "");
             driver.navigate().to(baseUrl + "/application");
-            // Wait for application items to load
+            // Wait for the applications API calls, then for the items to render
+            NetworkTracker.awaitNetworkIdle(driver);
             wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(By.xpath("//div[contains(@class, 'application-item')]")));
-            Thread.sleep(1000); // Additional wait for rendering
+            UiIdle.waitForUiIdle(driver); // Let the list finish rendering
+            PageTiming.collect(driver, "ApplicationPage.openApplicationsFromProfile");
             System.out.println("Successfully navigated to applications page via direct URL");
             return;
         } catch (Exception ex) {
@@ -33,41 +47,36 @@ public class ApplicationPage {
         }
 
         // Fallback: Try to click the user menu / username at top-right
-        By[] userSelectors = new By[] {
+        SelectorChain.Match userMenu = SelectorChain.of("application.userMenu",
             By.xpath("//button[contains(., 'Jishnu')]"),
             By.xpath("//button[contains(@class, 'v-btn') and contains(., 'MN')]"),
             By.cssSelector("button[aria-haspopup='true'][aria-expanded='false']"),
-            By.cssSelector("header button:last-of-type"),
-        };
-        for (By sel : userSelectors) {
+            By.cssSelector("header button:last-of-type")
+        ).clickable().find(driver);
+        if (userMenu != null) {
             try {
-                WebElement el = wait.until(ExpectedConditions.elementToBeClickable(sel));
-                if (el != null && el.isDisplayed()) {
-                    el.click();
-                    Thread.sleep(500);
-                    break;
-                }
+                userMenu.element().click();
+                UiIdle.waitForUiIdle(driver);
             } catch (Exception ignored) {
             }
         }
 
         // Then click Applications or Application link in dropdown
-        By[] appsSelectors = new By[] {
+        SelectorChain.Match appsLink = SelectorChain.of("application.menuLink",
             By.xpath("//a[contains(., 'Application')]"),
             By.xpath("//button[contains(., 'Application')]"),
             By.xpath("//div[contains(@class, 'v-menu__content')]//a[contains(., 'Application')]")
-        };
-        for (By sel : appsSelectors) {
+        ).clickable().find(driver);
+        if (appsLink != null) {
             try {
-                WebElement el = wait.until(ExpectedConditions.elementToBeClickable(sel));
-                if (el != null && el.isDisplayed()) {
-                    el.click();
-                    // Wait for application items to load after clicking
-                    wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(By.xpath("//div[contains(@class, 'application-item')]")));
-                    Thread.sleep(1000);
-                    System.out.println("Successfully navigated to applications page via menu click");
-                    return;
-                }
+                appsLink.element().click();
+                // Wait for application items to load after clicking
+                NetworkTracker.awaitNetworkIdle(driver);
+                wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(By.xpath("//div[contains(@class, 'application-item')]")));
+                UiIdle.waitForUiIdle(driver);
+                PageTiming.collect(driver, "ApplicationPage.openApplicationsFromProfile");
+                System.out.println("Successfully navigated to applications page via menu click");
+                return;
             } catch (Exception ignored) {
             }
         }
@@ -115,16 +124,6 @@ public class ApplicationPage {
         } catch (Exception ignored) {
         }
 
-        // Save page source for debugging
-        try {
-            java.time.format.DateTimeFormatter fmt = java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
-            String ts = java.time.LocalDateTime.now().format(fmt);
-            java.nio.file.Path out = java.nio.file.Paths.get("target", "screenshots", "applications-" + ts + ".html");
-            java.nio.file.Files.createDirectories(out.getParent());
-            java.nio.file.Files.write(out, driver.getPageSource().getBytes(java.nio.charset.StandardCharsets.UTF_8));
-        } catch (Exception ignored) {
-        }
-
         throw new RuntimeException("No application found for year " + year);
     }
 
@@ -144,11 +143,11 @@ public class ApplicationPage {
                         if (e.isDisplayed()) {
                             System.out.println("Found Continue Application element: " + e.getText());
                             ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", e);
-                            Thread.sleep(500);
+                            UiIdle.waitForUiIdle(driver);
                             // Use JavaScript click to bypass overlay elements
                             ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].click();", e);
                             wait.until(ExpectedConditions.presenceOfElementLocated(By.tagName("body")));
-                            Thread.sleep(2000);
+                            UiIdle.waitForUiIdle(driver);
                             return;
                         }
                     } catch (Exception ex) {
@@ -175,10 +174,10 @@ public class ApplicationPage {
                                     if (e.isDisplayed()) {
                                         System.out.println("Found Continue Application in parent: " + e.getText());
                                         ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", e);
-                                        Thread.sleep(500);
+                                        UiIdle.waitForUiIdle(driver);
                                         e.click();
                                         wait.until(ExpectedConditions.presenceOfElementLocated(By.tagName("body")));
-                                        Thread.sleep(1000);
+                                        UiIdle.waitForUiIdle(driver);
                                         return;
                                     }
                                 } catch (Exception ex) {}
@@ -192,20 +191,6 @@ public class ApplicationPage {
         } catch (Exception ignored) {
         }
 
-        // Debug: save page source
-        try {
-            java.time.format.DateTimeFormatter fmt = java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
-            String ts = java.time.LocalDateTime.now().format(fmt);
-            java.nio.file.Path out = java.nio.file.Paths.get("target", "screenshots", "app-card-debug-" + ts + ".html");
-            java.nio.file.Files.createDirectories(out.getParent());
-            // Save the appElement HTML
-            String html = (String) ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("return arguments[0].outerHTML;", appElement);
-            java.nio.file.Files.write(out, html.getBytes(java.nio.charset.StandardCharsets.UTF_8));
-            System.out.println("Saved appElement HTML to: " + out);
-        } catch (Exception ex) {
-            System.out.println("Error saving debug artifacts: " + ex.getMessage());
-        }
-
         throw new RuntimeException("Unable to find 'Continue Application' button on application card for year 2026");
     }
 }
@@ -1,14 +1,15 @@
 package com.example.pages;
 
+import com.example.support.DriverContext;
+import com.example.support.PageTiming;
+import com.example.support.SelectorChain;
+import com.example.support.UiIdle;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
-import java.util.Arrays;
-import java.util.List;
-
 public class LoginPage {
     private final WebDriver driver;
     private final WebDriverWait wait;
@@ -18,24 +19,27 @@ public class LoginPage {
         this.wait = wait;
     }
 
+    /**
+     * Build the page for the driver bound to the calling thread.
+     */
+    public LoginPage() {
+        this(DriverContext.current().driver(), DriverContext.current().waiter());
+    }
+
     public void acceptCookiesIfPresent() {
-        List<By> cookieSelectors = Arrays.asList(
+        SelectorChain.Match cookieBtn = SelectorChain.of("login.acceptCookies",
             By.id("accept"),
             By.id("cookie-consent"),
             By.xpath("//button[contains(translate(., 'ACCEPT', 'accept'), 'accept') or contains(., 'I agree') or contains(., 'Accept') or contains(., 'Agree') ]"),
             By.cssSelector("button.cookie-accept"),
             By.cssSelector("button[aria-label='Accept cookies']"),
             By.xpath("//button[contains(@class,'accept') and contains(.,'Accept')]")
-        );
+        ).clickable().find(driver);
 
-        for (By sel : cookieSelectors) {
+        if (cookieBtn != null) {
             try {
-                WebElement cookieBtn = wait.until(ExpectedConditions.elementToBeClickable(sel));
-                if (cookieBtn != null && cookieBtn.isDisplayed()) {
-                    cookieBtn.click();
-                    Thread.sleep(700);
-                    return;
-                }
+                cookieBtn.element().click();
+                UiIdle.waitForUiIdle(driver);
             } catch (Exception ignored) {
             }
         }
@@ -44,84 +48,58 @@ public class LoginPage {
     public void open(String url) {
         driver.navigate().to(url);
         wait.until(ExpectedConditions.presenceOfElementLocated(By.tagName("body")));
+        PageTiming.collect(driver, "LoginPage.open");
     }
 
     public void clickLoginButton() {
         // try common selectors for login
-        By[] loginSelectors = new By[] {
+        SelectorChain.Match btn = SelectorChain.of("login.open",
             By.id("login"),
             By.xpath("//button[contains(translate(., 'LOGIN', 'login'), 'login') or contains(., 'Login') or contains(., 'Sign in') or contains(., 'Log in') ]"),
             By.xpath("//a[contains(., 'Login') or contains(., 'Sign in') or contains(., 'Log in')]")
-        };
-        for (By sel : loginSelectors) {
-            try {
-                WebElement btn = wait.until(ExpectedConditions.elementToBeClickable(sel));
-                if (btn != null && btn.isDisplayed()) {
-                    btn.click();
-                    return;
-                }
-            } catch (Exception ignored) {
-            }
+        ).clickable().find(driver);
+        if (btn == null) {
+            throw new RuntimeException("Login button not found using known selectors");
         }
-        throw new RuntimeException("Login button not found using known selectors");
+        btn.element().click();
     }
 
     public void enterUsername(String username) {
-        By[] usernameSelectors = new By[] {
+        SelectorChain.Match el = SelectorChain.of("login.username",
             By.cssSelector("input[type='email']"),
             By.name("username"),
             By.id("username"),
             By.cssSelector("input[placeholder*='email']"),
             By.cssSelector("input[placeholder*='Email']")
-        };
-        for (By sel : usernameSelectors) {
-            try {
-                WebElement el = wait.until(ExpectedConditions.presenceOfElementLocated(sel));
-                if (el != null && el.isDisplayed()) {
-                    el.clear();
-                    el.sendKeys(username);
-                    return;
-                }
-            } catch (Exception ignored) {
-            }
+        ).visible().find(driver);
+        if (el == null) {
+            throw new RuntimeException("Username/email input not found");
         }
-        throw new RuntimeException("Username/email input not found");
+        el.element().clear();
+        el.element().sendKeys(username);
     }
 
     public void enterPassword(String password) {
-        By[] passwordSelectors = new By[] {
+        SelectorChain.Match el = SelectorChain.of("login.password",
             By.cssSelector("input[type='password']"),
             By.name("password"),
             By.id("password")
-        };
-        for (By sel : passwordSelectors) {
-            try {
-                WebElement el = wait.until(ExpectedConditions.presenceOfElementLocated(sel));
-                if (el != null && el.isDisplayed()) {
-                    el.clear();
-                    el.sendKeys(password);
-                    return;
-                }
-            } catch (Exception ignored) {
-            }
+        ).visible().find(driver);
+        if (el == null) {
+            throw new RuntimeException("Password input not found");
         }
-        throw new RuntimeException("Password input not found");
+        el.element().clear();
+        el.element().sendKeys(password);
     }
 
     public void submitLogin() {
-        By[] submitSelectors = new By[] {
+        SelectorChain.Match el = SelectorChain.of("login.submit",
             By.xpath("//button[@type='submit' and (contains(., 'Login') or contains(., 'Sign in') or contains(., 'Log in'))]"),
             By.xpath("//button[contains(., 'Login') or contains(., 'Sign in') or contains(., 'Log in')]")
-        };
-        for (By sel : submitSelectors) {
-            try {
-                WebElement el = wait.until(ExpectedConditions.elementToBeClickable(sel));
-                if (el != null && el.isDisplayed()) {
-                    el.click();
-                    return;
-                }
-            } catch (Exception ignored) {
-            }
+        ).clickable().find(driver);
+        if (el != null) {
+            el.element().click();
+            return;
         }
         // fallback: submit form by sending ENTER to password field
         try {
@@ -1,5 +1,11 @@
 package com.example.pages;
 
+import com.example.support.DriverContext;
+import com.example.support.NetworkTracker;
+import com.example.support.PageTiming;
+import com.example.support.ParallelCrawler;
+import com.example.support.SelectorChain;
+import com.example.support.UiIdle;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -8,6 +14,7 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -20,31 +27,31 @@ public class MenuPage {
         this.wait = wait;
     }
 
+    /**
+     * Build the page for the driver bound to the calling thread.
+     */
+    public MenuPage() {
+        this(DriverContext.current().driver(), DriverContext.current().waiter());
+    }
+
     /**
      * Click on the user menu (usually top-right corner)
      */
     public void openUserMenu() {
         try {
             // Try different selectors for the user menu button
-            By[] userMenuSelectors = new By[] {
+            SelectorChain.Match userMenuBtn = SelectorChain.of("menu.userButton",
                 By.xpath("//button[contains(@class, 'v-btn') and contains(., 'MN')]"),
                 By.xpath("//button[contains(., 'Jishnu')]"),
                 By.cssSelector("button[aria-haspopup='menu']"),
                 By.cssSelector("header button:last-of-type"),
-                By.xpath("//button[@aria-expanded='false'][1]"),
-            };
+                By.xpath("//button[@aria-expanded='false'][1]")
+            ).clickable().find(driver);
 
-            for (By selector : userMenuSelectors) {
-                try {
-                    WebElement userMenuBtn = wait.until(ExpectedConditions.elementToBeClickable(selector));
-                    if (userMenuBtn != null && userMenuBtn.isDisplayed()) {
-                        userMenuBtn.click();
-                        Thread.sleep(500);
-                        System.out.println("Successfully opened user menu");
-                        return;
-                    }
-                } catch (Exception ignored) {
-                }
+            if (userMenuBtn != null) {
+                userMenuBtn.element().click();
+                UiIdle.waitForUiIdle(driver);
+                System.out.println("Successfully opened user menu");
             }
         } catch (Exception e) {
             System.out.println("Failed to open user menu: " + e.getMessage());
@@ -82,26 +89,22 @@ public class MenuPage {
     public void clickMenuItem(String menuItemName) {
         try {
             // Try to find and click the menu item
-            By[] selectors = new By[] {
+            SelectorChain.Match menuItem = SelectorChain.of("menu.item",
                 By.xpath("//div[contains(@class, 'v-menu__content')]//a[contains(., '" + menuItemName + "')]"),
                 By.xpath("//div[contains(@class, 'v-menu__content')]//button[contains(., '" + menuItemName + "')]"),
-                By.xpath("//div[contains(@class, 'v-menu__content')]//*[contains(text(), '" + menuItemName + "')]"),
-            };
+                By.xpath("//div[contains(@class, 'v-menu__content')]//*[contains(text(), '" + menuItemName + "')]")
+            ).clickable().find(driver);
 
-            for (By selector : selectors) {
-                try {
-                    WebElement menuItem = wait.until(ExpectedConditions.elementToBeClickable(selector));
-                    if (menuItem != null && menuItem.isDisplayed()) {
-                        // Scroll into view if needed
-                        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", menuItem);
-                        Thread.sleep(300);
-                        menuItem.click();
-                        Thread.sleep(1000); // Wait for page load after clicking
-                        System.out.println("Successfully clicked menu item: " + menuItemName);
-                        return;
-                    }
-                } catch (Exception ignored) {
-                }
+            if (menuItem != null) {
+                // Scroll into view if needed
+                ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", menuItem.element());
+                UiIdle.waitForUiIdle(driver);
+                menuItem.element().click();
+                // Wait for the backend calls that render the target page, then for it to settle
+                NetworkTracker.awaitNetworkIdle(driver);
+                UiIdle.waitForUiIdle(driver);
+                PageTiming.collect(driver, "MenuPage.clickMenuItem");
+                System.out.println("Successfully clicked menu item: " + menuItemName);
             }
         } catch (Exception e) {
             System.out.println("Failed to click menu item '" + menuItemName + "': " + e.getMessage());
@@ -152,10 +155,114 @@ public class MenuPage {
         return "Unknown Page";
     }
 
+    /**
+     * How {@link #navigateAllMenuItems()} reaches each menu entry.
+     */
+    public enum CrawlMode {
+        /** Read every entry's target once and open it directly; click only entries without one. */
+        DIRECT,
+        /** Refresh, reopen the menu and click, for every entry. */
+        CLICK
+    }
+
+    // One pass over the open menu: visible entries with their href or vue-router target (null when
+    // the entry only has a click handler)
+    private static final String MENU_TARGETS_SCRIPT =
+        "var out = [], seen = {};"
+            + "var items = document.querySelectorAll('.v-menu__content a, .v-menu__content button');"
+            + "for (var i = 0; i < items.length; i++) {"
+            + "  var el = items[i];"
+            + "  if (el.getClientRects().length === 0) { continue; }"
+            + "  var text = (el.innerText || '').trim();"
+            + "  if (!text || seen[text]) { continue; }"
+            + "  seen[text] = true;"
+            + "  var target = null, href = el.getAttribute('href');"
+            + "  if (href && href.charAt(0) !== '#' && href.indexOf('javascript:') !== 0) {"
+            + "    target = el.href;"
+            + "  } else {"
+            // components rendered onto this element, innermost first
+            + "    for (var vm = el.__vue__; vm && vm.$el === el && !target; vm = vm.$parent) {"
+            + "      if (vm.$props && vm.$props.to && vm.$router) { target = new URL(vm.$router.resolve(vm.$props.to).href, location.href).href; }"
+            + "    }"
+            + "  }"
+            + "  out.push([text, target]);"
+            + "}"
+            + "return out;";
+
+    /**
+     * Crawl mode from -Dtaxmind.menu.crawl (direct or click, default direct).
+     */
+    public static CrawlMode crawlMode() {
+        return "click".equalsIgnoreCase(System.getProperty("taxmind.menu.crawl")) ? CrawlMode.CLICK : CrawlMode.DIRECT;
+    }
+
     /**
      * Navigate through all menu items and return a map of menu item -> page URL
      */
     public Map<String, String[]> navigateAllMenuItems() {
+        return navigateAllMenuItems(crawlMode());
+    }
+
+    /**
+     * Navigate through all menu items and return a map of menu item -> [0]=url, [1]=title
+     */
+    public Map<String, String[]> navigateAllMenuItems(CrawlMode mode) {
+        return mode == CrawlMode.CLICK ? navigateByClicking() : navigateDirectly();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, String[]> navigateDirectly() {
+        Map<String, String[]> menuNavigationMap = new HashMap<>();
+        try {
+            String menuPageUrl = getCurrentUrl();
+            if (driver.findElements(By.cssSelector(".v-menu__content a, .v-menu__content button")).isEmpty()) {
+                openUserMenu();
+            }
+            List<List<String>> entries = (List<List<String>>) ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(MENU_TARGETS_SCRIPT);
+            if (entries == null || entries.isEmpty()) {
+                System.out.println("No menu items found");
+                return menuNavigationMap;
+            }
+
+            // Entries with a target are visited first, spread over -Dtaxmind.menu.crawl.workers
+            // sessions; click-only entries (e.g. Logout) go last so they cannot end the session
+            // before the others are checked
+            Map<String, String> targets = new LinkedHashMap<>();
+            List<String> clickOnly = new ArrayList<>();
+            for (List<String> entry : entries) {
+                if (entry.get(1) == null) {
+                    clickOnly.add(entry.get(0));
+                } else {
+                    targets.put(entry.get(0), entry.get(1));
+                }
+            }
+            menuNavigationMap.putAll(ParallelCrawler.crawl(driver, targets, ParallelCrawler.defaultWorkers(),
+                target -> new MenuPage().openTarget(target)));
+
+            for (String menuItem : clickOnly) {
+                try {
+                    System.out.println("\n--- Clicking menu item: " + menuItem + " ---");
+                    if (!getCurrentUrl().equals(menuPageUrl)) {
+                        driver.navigate().to(menuPageUrl);
+                        UiIdle.waitForUiIdle(driver);
+                    }
+                    openUserMenu();
+                    clickMenuItem(menuItem);
+                    recordPage(menuNavigationMap, menuItem);
+                    driver.navigate().back();
+                    UiIdle.waitForUiIdle(driver);
+                } catch (Exception e) {
+                    System.out.println("✗ Failed to process menu item '" + menuItem + "': " + e.getMessage());
+                    menuNavigationMap.put(menuItem, new String[] { "ERROR: " + e.getMessage(), "" });
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("Failed to navigate all menu items: " + e.getMessage());
+        }
+        return menuNavigationMap;
+    }
+
+    private Map<String, String[]> navigateByClicking() {
         // return map: menuItem -> [0]=url, [1]=title
         Map<String, String[]> menuNavigationMap = new HashMap<>();
         
@@ -180,26 +287,16 @@ public class MenuPage {
                     System.out.println("\n--- Processing menu item: " + menuItem + " ---");
                     
                     // Close the current menu and reopen for fresh state
-                    Thread.sleep(500);
                     driver.navigate().refresh();
-                    Thread.sleep(1000);
+                    UiIdle.waitForUiIdle(driver);
                     
-                    // Reopen the menu
+                    // Reopen the menu (waits for it to settle)
                     openUserMenu();
-                    Thread.sleep(500);
                     
-                    // Click the menu item
+                    // Click the menu item (waits for the page to load)
                     clickMenuItem(menuItem);
                     
-                    // Wait for page to load
-                    Thread.sleep(2000);
-                    
-                    // Get page details
-                    String pageUrl = getCurrentUrl();
-                    String pageTitle = getCurrentPageTitle();
-
-                    menuNavigationMap.put(menuItem, new String[] { pageUrl, pageTitle });
-                    System.out.println("✓ Menu item: '" + menuItem + "' → URL: " + pageUrl + " | Title: " + pageTitle);
+                    recordPage(menuNavigationMap, menuItem);
                     
                 } catch (Exception e) {
                     System.out.println("✗ Failed to process menu item '" + menuItem + "': " + e.getMessage());
@@ -213,6 +310,27 @@ public class MenuPage {
         return menuNavigationMap;
     }
 
+    /**
+     * Open a menu target directly and report where it landed: [0]=url, [1]=title
+     */
+    private String[] openTarget(String target) {
+        driver.navigate().to(target);
+        NetworkTracker.awaitNetworkIdle(driver);
+        UiIdle.waitForUiIdle(driver);
+        PageTiming.collect(driver, "MenuPage.openTarget");
+        String pageUrl = getCurrentUrl();
+        String pageTitle = getCurrentPageTitle();
+        System.out.println("✓ Opened '" + target + "' → URL: " + pageUrl + " | Title: " + pageTitle);
+        return new String[] { pageUrl, pageTitle };
+    }
+
+    private void recordPage(Map<String, String[]> menuNavigationMap, String menuItem) {
+        String pageUrl = getCurrentUrl();
+        String pageTitle = getCurrentPageTitle();
+        menuNavigationMap.put(menuItem, new String[] { pageUrl, pageTitle });
+        System.out.println("✓ Menu item: '" + menuItem + "' → URL: " + pageUrl + " | Title: " + pageTitle);
+    }
+
     /**
      * Close the menu by clicking elsewhere or pressing Escape
      */
@@ -220,7 +338,7 @@ public class MenuPage {
         try {
             // Try pressing Escape key
             driver.navigate().refresh();
-            Thread.sleep(500);
+            UiIdle.waitForUiIdle(driver);
         } catch (Exception e) {
             System.out.println("Failed to close menu: " + e.getMessage());
         }
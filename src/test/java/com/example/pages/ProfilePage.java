@@ -1,6 +1,8 @@
 package com.example.pages;
 
-import org.openqa.selenium.By;
+import com.example.support.DriverContext;
+import com.example.support.TextLocator;
+import org.openqa.selenium.JavascriptException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
@@ -14,12 +16,28 @@ public class ProfilePage {
         this.wait = wait;
     }
 
+    /**
+     * Build the page for the driver bound to the calling thread.
+     */
+    public ProfilePage() {
+        this(DriverContext.current().driver(), DriverContext.current().waiter());
+    }
+
     public boolean isAtProfile() {
         try {
-            wait.until(d -> d.getCurrentUrl().toLowerCase().contains("profile") || d.findElements(By.xpath("//*[contains(translate(., 'PROFILE', 'profile'), 'profile') or contains(., 'My Account') or contains(., 'My Profile')]")).size() > 0);
+            wait.until(d -> d.getCurrentUrl().toLowerCase().contains("profile") || showsProfileText(d));
             return true;
         } catch (Exception e) {
             return false;
         }
     }
+
+    private static boolean showsProfileText(WebDriver d) {
+        try {
+            return !TextLocator.containing("profile", "my account").find(d).isEmpty();
+        } catch (JavascriptException e) {
+            // the document was swapped out mid-navigation; poll again
+            return false;
+        }
+    }
 }
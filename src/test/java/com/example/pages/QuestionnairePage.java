@@ -1,5 +1,8 @@
 package com.example.pages;
 
+import com.example.support.DriverContext;
+import com.example.support.SelectorChain;
+import com.example.support.UiIdle;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -18,6 +21,13 @@ public class QuestionnairePage {
         this.wait = wait;
     }
 
+    /**
+     * Build the page for the driver bound to the calling thread.
+     */
+    public QuestionnairePage() {
+        this(DriverContext.current().driver(), DriverContext.current().waiter());
+    }
+
     public void fillMandatoryQuestions() {
         // Find inputs marked required, or labels with '*' then their inputs
         List<WebElement> requiredInputs = driver.findElements(By.cssSelector("input[required], textarea[required], select[required], input[aria-required='true']"));
@@ -92,7 +102,7 @@ public class QuestionnairePage {
         try {
             // Wait for dialog container to appear
             wait.until(ExpectedConditions.presenceOfElementLocated(By.xpath("//div[contains(@class, 'v-dialog__container')]//div[contains(@class, 'v-card')]")));
-            Thread.sleep(1000); // Give time for form content to render
+            UiIdle.waitForUiIdle(driver); // Let the form content render
             System.out.println("Questionnaire modal detected");
         } catch (Exception e) {
             System.out.println("Could not find questionnaire modal dialog: " + e.getMessage());
@@ -107,7 +117,7 @@ public class QuestionnairePage {
         }
         
         // click submit button on questionnaire (broadened selectors, search within dialog first)
-        By[] submitSelectors = new By[] {
+        SelectorChain submitChain = SelectorChain.of("questionnaire.submit",
             // Most specific: look in dialog container
             By.xpath("//div[contains(@class, 'v-dialog__container')]//div[contains(@class, 'v-card')]//button[contains(., 'Submit') or contains(., 'Finish') or contains(., 'Continue')]"),
             // Look for buttons in dialog with action-btn class
@@ -126,51 +136,25 @@ public class QuestionnairePage {
             By.cssSelector("button[data-qa='submit'], button[data-test='submit']"),
             By.xpath("//div[@role='dialog']//button[contains(., 'Submit') or contains(., 'Finish') or contains(., 'Complete') or contains(., 'Save') or contains(., 'Continue')]"),
             By.xpath("//form//button[not(@type='button') or @type='submit']")
-        };
+        ).visible()
+            // Skip header buttons like "New Claim" that are not part of the form
+            .excludingText("New Claim", "Questionnaire", "Comments", "Amendment");
+
         boolean clicked = false;
-        for (By sel : submitSelectors) {
+        SelectorChain.Match submit = submitChain.find(driver);
+        if (submit != null) {
             try {
-                List<WebElement> candidates = driver.findElements(sel);
-                for (WebElement btn : candidates) {
-                    try {
-                        if (btn.isDisplayed()) {
-                            String btnText = btn.getText();
-                            System.out.println("Checking button: " + btnText + " with selector: " + sel);
-                            // Skip if it's a header button like "New Claim"
-                            if (btnText.contains("New Claim") || btnText.contains("Questionnaire") || btnText.contains("Comments") || btnText.contains("Amendment")) {
-                                System.out.println("Skipping non-form button: " + btnText);
-                                continue;
-                            }
-                            System.out.println("Clicking button: " + btnText);
-                            ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", btn);
-                            Thread.sleep(200);
-                            btn.click();
-                            clicked = true;
-                            break;
-                        }
-                    } catch (Exception ex) {
-                        System.out.println("Error with button: " + ex.getMessage());
-                    }
-                }
-                if (clicked) break;
-            } catch (Exception ignored) {
+                WebElement btn = submit.element();
+                System.out.println("Clicking button: " + btn.getText() + " with selector: " + submit.locator());
+                ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", btn);
+                UiIdle.waitForUiIdle(driver);
+                btn.click();
+                clicked = true;
+            } catch (Exception ex) {
+                System.out.println("Error with button: " + ex.getMessage());
             }
         }
         if (!clicked) {
-            // save page source and screenshot for debugging
-            try {
-                java.time.format.DateTimeFormatter fmt = java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
-                String ts = java.time.LocalDateTime.now().format(fmt);
-                java.nio.file.Path out = java.nio.file.Paths.get("target", "screenshots", "questionnaire-" + ts + ".html");
-                java.nio.file.Files.createDirectories(out.getParent());
-                java.nio.file.Files.write(out, driver.getPageSource().getBytes(java.nio.charset.StandardCharsets.UTF_8));
-                try {
-                    org.openqa.selenium.TakesScreenshot tsnap = (org.openqa.selenium.TakesScreenshot) driver;
-                    byte[] bytes = tsnap.getScreenshotAs(org.openqa.selenium.OutputType.BYTES);
-                    java.nio.file.Path png = java.nio.file.Paths.get("target", "screenshots", "questionnaire-" + ts + ".png");
-                    java.nio.file.Files.write(png, bytes);
-                } catch (Exception ignored) {}
-            } catch (Exception ignored) {}
             throw new RuntimeException("Submit button on questionnaire not found");
         }
 
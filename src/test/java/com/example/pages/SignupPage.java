@@ -1,13 +1,19 @@
 package com.example.pages;
 
+import com.example.support.DriverContext;
+import com.example.support.OtpLocator;
+import com.example.support.SelectorChain;
+import com.example.support.TextLocator;
+import com.example.support.UiIdle;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Clean SignupPage implementation (single class, no duplicates).
@@ -21,31 +27,31 @@ public class SignupPage {
         this.wait = wait;
     }
 
+    /**
+     * Build the page for the driver bound to the calling thread.
+     */
+    public SignupPage() {
+        this(DriverContext.current().driver(), DriverContext.current().waiter());
+    }
+
     public void openLanding(String url) {
         driver.navigate().to(url);
         wait.until(d -> d.getCurrentUrl().toLowerCase().contains("taxmind") || d.getTitle().length() > 0);
     }
 
     public void clickApplyButton() {
-    By[] selectors = new By[] {
-        By.xpath("//a[contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'apply') or contains(@href, 'apply') ]"),
-        By.xpath("//button[contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'apply')]") ,
-        By.cssSelector("a[href*='apply']"),
-        By.cssSelector("button.apply")
-    };
+        SelectorChain.Match apply = SelectorChain.of("signup.apply",
+            By.xpath("//a[contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'apply') or contains(@href, 'apply') ]"),
+            By.xpath("//button[contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'apply')]"),
+            By.cssSelector("a[href*='apply']"),
+            By.cssSelector("button.apply")
+        ).clickable().find(driver);
 
-        for (By sel : selectors) {
-            try {
-                WebElement e = wait.until(ExpectedConditions.elementToBeClickable(sel));
-                if (e != null && e.isDisplayed()) {
-                    e.click();
-                    Thread.sleep(800);
-                    return;
-                }
-            } catch (Exception ignored) {}
+        if (apply == null) {
+            throw new RuntimeException("Apply button not found");
         }
-
-        throw new RuntimeException("Apply button not found");
+        apply.element().click();
+        UiIdle.waitForUiIdle(driver);
     }
 
     public void fillSignupForm(String firstName, String lastName, String email, String phone, String password, 
@@ -88,20 +94,20 @@ public class SignupPage {
                     WebElement dobEl = driver.findElement(dobInput);
                     try {
                         dobEl.click();
-                        Thread.sleep(500);
+                        UiIdle.waitForUiIdle(driver);
 
                         // Try to click a day in a Vuetify-style date picker
                         List<WebElement> dateButtons = driver.findElements(By.xpath("//div[contains(@class,'v-date-picker') or contains(@class,'v-calendar')]//button[normalize-space(.)='" + day + "']"));
                         if (!dateButtons.isEmpty()) {
                             dateButtons.get(0).click();
-                            Thread.sleep(300);
+                            UiIdle.waitForUiIdle(driver);
                             System.out.println("[signup-debug] dateOfBirth clicked day=" + day + "");
                         } else {
                             // Fallback: try plain buttons with day text (less specific)
                             List<WebElement> plainDay = driver.findElements(By.xpath("//button[normalize-space(.)='" + day + "']"));
                             if (!plainDay.isEmpty()) {
                                 plainDay.get(0).click();
-                                Thread.sleep(300);
+                                UiIdle.waitForUiIdle(driver);
                                 System.out.println("[signup-debug] dateOfBirth clicked plain day=" + day + "");
                             } else {
                                 // Last resort: set the input value directly via JS and dispatch events
@@ -109,7 +115,7 @@ public class SignupPage {
                                     System.out.println("[signup-debug] dateOfBirth falling back to JS set: " + dateOfBirth);
                                     org.openqa.selenium.JavascriptExecutor js = (org.openqa.selenium.JavascriptExecutor) driver;
                                     js.executeScript("arguments[0].removeAttribute('readonly'); arguments[0].value = arguments[1]; arguments[0].dispatchEvent(new Event('input')); arguments[0].dispatchEvent(new Event('change'));", dobEl, dateOfBirth);
-                                    Thread.sleep(300);
+                                    UiIdle.waitForUiIdle(driver);
                                 } catch (Exception jsEx) {
                                     System.out.println("[signup-debug] dateOfBirth JS fallback failed: " + jsEx.getMessage());
                                 }
@@ -121,7 +127,7 @@ public class SignupPage {
                         try {
                             org.openqa.selenium.JavascriptExecutor js = (org.openqa.selenium.JavascriptExecutor) driver;
                             js.executeScript("arguments[0].removeAttribute('readonly'); arguments[0].value = arguments[1]; arguments[0].dispatchEvent(new Event('input')); arguments[0].dispatchEvent(new Event('change'));", dobEl, dateOfBirth);
-                            Thread.sleep(300);
+                            UiIdle.waitForUiIdle(driver);
                         } catch (Exception ignored) {}
                     }
                 }
@@ -174,7 +180,7 @@ public class SignupPage {
                 By maritalSelect = By.xpath("//span[normalize-space(.)='Marital Status']/following::div[contains(@class, 'v-select')][1]");
                 WebElement maritalEl = driver.findElement(maritalSelect);
                 maritalEl.click();
-                Thread.sleep(400);
+                UiIdle.waitForUiIdle(driver);
                 // Try to select option matching the maritalStatus text
                 try {
                     String optText = maritalStatus != null ? maritalStatus : "";
@@ -182,12 +188,12 @@ public class SignupPage {
                         List<WebElement> matching = driver.findElements(By.xpath("//div[contains(@class,'v-list-item__title') and normalize-space(.)='" + optText + "']"));
                         if (!matching.isEmpty()) {
                             matching.get(0).click();
-                            Thread.sleep(300);
+                            UiIdle.waitForUiIdle(driver);
                             System.out.println("[signup-debug] maritalStatus selected='" + optText + "'");
                         } else {
                             // fallback: pick first available option
                             List<WebElement> options = driver.findElements(By.xpath("//div[contains(@class, 'v-select__menu')]//div[contains(@class, 'v-list-item')]"));
-                            if (!options.isEmpty()) { options.get(0).click(); Thread.sleep(300); System.out.println("[signup-debug] maritalStatus fallback to first option"); }
+                            if (!options.isEmpty()) { options.get(0).click(); UiIdle.waitForUiIdle(driver); System.out.println("[signup-debug] maritalStatus fallback to first option"); }
                         }
                     }
                 } catch (Exception ignored) {}
@@ -196,7 +202,7 @@ public class SignupPage {
             // Terms & Conditions / Consent checkbox: robustly click the actual input/button next to the label
             try {
                 // Find the label/span containing 'I agree' or 'Terms & Conditions'
-                List<WebElement> consentLabels = driver.findElements(By.xpath("//*[contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'i agree') or contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'terms & conditions') or contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'terms and conditions') or contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'consent')][not(self::script or self::style)]"));
+                List<WebElement> consentLabels = TextLocator.containing("i agree", "terms & conditions", "terms and conditions", "consent").find(driver);
                 for (WebElement label : consentLabels) {
                     // Look for a nearby input[type=checkbox] or clickable button/div
                     try {
@@ -215,7 +221,7 @@ public class SignupPage {
                         if (checkbox != null && checkbox.isDisplayed()) {
                             if (!checkbox.isSelected()) {
                                 checkbox.click();
-                                Thread.sleep(200);
+                                UiIdle.waitForUiIdle(driver);
                                 System.out.println("[signup-debug] consent checkbox clicked");
                             }
                             break;
@@ -223,7 +229,7 @@ public class SignupPage {
                         // Fallback: click the label itself if clickable
                         if (label.isDisplayed() && label.isEnabled()) {
                             label.click();
-                            Thread.sleep(200);
+                            UiIdle.waitForUiIdle(driver);
                             System.out.println("[signup-debug] consent label clicked as fallback");
                             break;
                         }
@@ -234,49 +240,27 @@ public class SignupPage {
             // Scroll to submit button
             try { driver.findElement(By.xpath("//button[contains(., 'Submit')]")); } catch (Exception ignored) {}
 
-            By[] submitSelectors = new By[] {
+            SelectorChain.Match submit = SelectorChain.of("signup.submit",
                     By.xpath("//button[contains(., 'Submit') or contains(., 'Continue') or contains(., 'Sign up') or contains(., 'Register') or contains(., 'Create Account')]"),
                     By.xpath("//input[@type='submit']"),
                     By.cssSelector("button[type='submit']")
-            };
+            ).clickable().find(driver);
 
-            for (By s : submitSelectors) {
-                try {
-                    WebElement btn = wait.until(ExpectedConditions.elementToBeClickable(s));
-                    if (btn != null && btn.isDisplayed()) { btn.click(); Thread.sleep(800); return; }
-                } catch (Exception ignored) {}
+            if (submit != null) {
+                try { submit.element().click(); UiIdle.waitForUiIdle(driver); } catch (Exception ignored) {}
             }
         } catch (Exception e) {
             throw new RuntimeException("Failed to fill signup form: " + e.getMessage());
         }
     }
 
+    /**
+     * Type the code into the OTP step if one shows up; signup may have a second OTP step or
+     * none, so a missing field is not an error here.
+     */
     public void enterOtp(String otp) {
-        // Prefer individual digit inputs (common pattern)
-        try {
-            List<WebElement> digits = driver.findElements(By.xpath("//input[(contains(@class,'otp') or contains(@class,'digit') or contains(@name,'otp') or @maxlength='1')]"));
-            if (digits != null && digits.size() >= otp.length()) {
-                for (int i = 0; i < otp.length(); i++) {
-                    try { digits.get(i).clear(); digits.get(i).sendKeys(String.valueOf(otp.charAt(i))); } catch (Exception ignored) {}
-                }
-                return;
-            }
-        } catch (Exception ignored) {}
-
-        // Prefer single input with explicit OTP hints or maxlength
-        try {
-            By singleOtp = By.xpath("//input[(contains(translate(@placeholder, 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'),'otp') or contains(translate(@aria-label, 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'),'otp') or contains(translate(@name, 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'),'otp') or @maxlength='6' or @type='tel' and contains(@class,'otp'))]");
-            WebElement single = wait.until(ExpectedConditions.presenceOfElementLocated(singleOtp));
-            single.clear(); single.sendKeys(otp);
-            return;
-        } catch (Exception ignored) {}
-
-        // Last resort: try to locate an input inside a container that mentions OTP
-        try {
-            WebElement container = driver.findElement(By.xpath("//*[contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'otp') or contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'one-time')]") );
-            WebElement input = container.findElement(By.xpath(".//input[1]"));
-            if (input != null) { input.clear(); input.sendKeys(otp); return; }
-        } catch (Exception ignored) {}
+        OtpLocator.Match match = OtpLocator.forLength(otp.length()).enterIfPresent(driver, otp);
+        System.out.println("[signup-debug] otp " + (match == null ? "step not found" : "entered into " + match));
     }
 
     public void submitOtpIfPresent() {
@@ -284,7 +268,7 @@ public class SignupPage {
         for (By s : submitOtpSelectors) {
             try {
                 WebElement b = driver.findElement(s);
-                if (b != null && b.isDisplayed()) { b.click(); Thread.sleep(600); return; }
+                if (b != null && b.isDisplayed()) { b.click(); UiIdle.waitForUiIdle(driver); return; }
             } catch (Exception ignored) {}
         }
     }
@@ -297,15 +281,21 @@ public class SignupPage {
             
             WebDriverWait shortWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
             WebElement popup = shortWait.until(d -> {
-                // Try all visible elements containing the email address
+                // One text pass per poll for the email and the e-sign wording
+                Map<String, List<WebElement>> byText;
                 try {
-                    List<WebElement> allElements = d.findElements(By.xpath("//*[contains(text(), '" + expectedEmail + "')]"));
-                    if (!allElements.isEmpty()) {
-                        System.out.println("[esign-debug] Found element with email text");
-                        return allElements.get(0);
-                    }
-                } catch (Exception e1) {}
-                
+                    byText = TextLocator.containing(expectedEmail, "e-sign", "blocked", "signing").findEach(d);
+                } catch (Exception e1) {
+                    byText = Map.of();
+                }
+
+                // Try all elements containing the email address
+                List<WebElement> allElements = byText.getOrDefault(expectedEmail, List.of());
+                if (!allElements.isEmpty()) {
+                    System.out.println("[esign-debug] Found element with email text");
+                    return allElements.get(0);
+                }
+
                 // Try dialog/modal containers
                 try {
                     List<WebElement> candidates = d.findElements(By.xpath("//div[contains(@class,'v-dialog') or contains(@class,'modal') or contains(@role,'dialog') or contains(@class,'toast') or contains(@class,'notification') or contains(@class,'popup')]"));
@@ -321,7 +311,12 @@ public class SignupPage {
                 
                 // Search for text mentioning e-sign, blocked, signing
                 try {
-                    List<WebElement> others = d.findElements(By.xpath("//*[contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'e-sign') or contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'blocked') or contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'signing')]"));
+                    List<WebElement> others = new ArrayList<>();
+                    for (String term : List.of("e-sign", "blocked", "signing")) {
+                        for (WebElement o : byText.getOrDefault(term, List.of())) {
+                            if (!others.contains(o)) others.add(o);
+                        }
+                    }
                     for (WebElement o : others) {
                         try { 
                             if (o.isDisplayed() && o.getText() != null && (o.getText().contains(expectedEmail) || o.getText().contains("blocked") || o.getText().contains("sign"))) {
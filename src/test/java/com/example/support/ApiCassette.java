@@ -0,0 +1,542 @@
+package com.example.support;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * Records the app's backend calls (XHR and fetch) into an on-disk cassette and answers them
+ * from it later, through CDP Fetch interception.
+ *
+ * -Dtaxmind.cassette=record lets every call through and writes what came back to
+ * {@code <taxmind.cassette.dir>/<name>.json} when the test ends; =replay fulfils the calls
+ * from that file without touching the network, optionally after
+ * -Dtaxmind.cassette.latency (a fixed delay or a MIN-MAX range in ms) to act like a slow
+ * backend. Calls are matched on method, path and a hash of the request body. JSON request
+ * bodies are kept with credential-like fields replaced by ${field} placeholders, and the
+ * headers the app set itself (not the ones the browser adds) with credentials replaced the
+ * same way: authorization keeps its scheme and becomes e.g. "Bearer ${token}". That is what
+ * the protocol-level load driver replays. Pages, scripts and styles are never intercepted.
+ *
+ * Responses are redacted before they are written: cookie values in set-cookie, authorization
+ * and other token-like headers, and token-like or personal fields (email, phone, address...)
+ * anywhere in JSON bodies become ${field} placeholders. Replays therefore hand the app
+ * placeholder tokens and profile data; that is enough for the calls to match, since matching
+ * never looks at headers. Non-JSON bodies are kept as they are. Cassettes go to
+ * target/cassettes unless -Dtaxmind.cassette.dir says otherwise; check a recording before
+ * moving it anywhere that is checked in.
+ */
+public final class ApiCassette {
+    public static final int FORMAT_VERSION = 3;
+    /** request fields that are stored as ${name} placeholders instead of their value */
+    private static final Pattern SECRET_FIELDS = Pattern.compile("(?i)password|otp|code|email|username|token");
+    /** response header names whose values are replaced */
+    private static final Pattern SECRET_HEADERS =
+        Pattern.compile("(?i)authorization|proxy-authorization|cookie|.*(token|secret|session|api-?key|auth).*");
+    /** response JSON fields, at any depth, whose values are replaced */
+    private static final Pattern SECRET_BODY_FIELDS = Pattern.compile("(?i).*(token|secret|password|passwd|session|jwt"
+        + "|authorization|api_?key|otp|email|phone|mobile|pps|dob|birth|address|eircode).*");
+
+    public enum Mode { OFF, RECORD, REPLAY }
+
+    private static final Json JSON = new Json();
+    /** one Fetch listener per browser, pointing at whichever cassette the current test uses */
+    private static final Map<WebDriver, AtomicReference<ApiCassette>> ACTIVE =
+        Collections.synchronizedMap(new WeakHashMap<>());
+    private static final ScheduledExecutorService DELAYS = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "cassette-latency");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final List<String> DROPPED_HEADERS = List.of("content-encoding", "content-length", "transfer-encoding");
+    /** request headers the browser or the HTTP client manage; the rest is kept for replays */
+    private static final List<String> BROWSER_HEADERS = List.of("host", "connection", "content-length", "content-type",
+        "cookie", "accept-encoding", "user-agent", "origin", "referer", "upgrade", "expect", "te");
+
+    private final Mode mode;
+    private final Path file;
+    private final DevTools devTools;
+    private final AtomicReference<ApiCassette> slot;
+    private final List<Interaction> recorded = new ArrayList<>();
+    /** method + path + body hash -> responses left to replay, in recorded order */
+    private final Map<String, Deque<Interaction>> remaining = new LinkedHashMap<>();
+    private final long[] latency;
+    private String origin;
+
+    private ApiCassette(Mode mode, Path file, DevTools devTools, AtomicReference<ApiCassette> slot, long[] latency) {
+        this.mode = mode;
+        this.file = file;
+        this.devTools = devTools;
+        this.slot = slot;
+        this.latency = latency;
+    }
+
+    public static Mode mode() {
+        return Mode.valueOf(System.getProperty("taxmind.cassette", "off").trim().toUpperCase(Locale.ROOT));
+    }
+
+    public static Path fileFor(String name) {
+        return Paths.get(System.getProperty("taxmind.cassette.dir", "target/cassettes"), name + ".json");
+    }
+
+    /**
+     * Start recording or replaying the driver's backend calls under the cassette {@code name},
+     * as -Dtaxmind.cassette says.
+     *
+     * @return the running cassette, or null when cassettes are off or the browser has no DevTools
+     */
+    public static ApiCassette start(WebDriver driver, String name) {
+        Mode mode = mode();
+        if (mode == Mode.OFF) {
+            return null;
+        }
+        DevTools devTools = Cdp.session(driver);
+        if (devTools == null) {
+            System.out.println("[cassette] No DevTools connection, backend calls go to the network");
+            return null;
+        }
+        AtomicReference<ApiCassette> slot;
+        synchronized (ACTIVE) {
+            slot = ACTIVE.get(Cdp.unwrap(driver));
+            if (slot == null) {
+                AtomicReference<ApiCassette> created = new AtomicReference<>();
+                devTools.addListener(new Event<Map<String, Object>>("Fetch.requestPaused",
+                    input -> input.read(Json.MAP_TYPE)), params -> onPaused(devTools, created.get(), params));
+                ACTIVE.put(Cdp.unwrap(driver), created);
+                slot = created;
+            }
+        }
+
+        ApiCassette cassette = new ApiCassette(mode, fileFor(name), devTools, slot, latency());
+        String stage = "Request";
+        if (mode == Mode.REPLAY) {
+            List<Interaction> interactions = load(cassette.file);
+            for (Interaction interaction : interactions) {
+                cassette.remaining.computeIfAbsent(interaction.key(), k -> new ArrayDeque<>()).add(interaction);
+            }
+            System.out.println("[cassette] Replaying " + interactions.size() + " call(s) from " + cassette.file
+                + (cassette.latency[1] > 0 ? " with " + cassette.latency[0] + "-" + cassette.latency[1] + "ms latency" : ""));
+        } else {
+            stage = "Response";
+        }
+        slot.set(cassette);
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        for (String type : List.of("XHR", "Fetch")) {
+            patterns.add(Map.of("urlPattern", "*", "resourceType", type, "requestStage", stage));
+        }
+        devTools.send(new Command<>("Fetch.enable", Map.of("patterns", patterns)));
+        return cassette;
+    }
+
+    /**
+     * Stop intercepting; a recording cassette is written to disk.
+     */
+    public void stop() {
+        slot.compareAndSet(this, null);
+        try {
+            devTools.send(new Command<>("Fetch.disable", Map.of()));
+        } catch (Exception ignored) {
+        }
+        if (mode == Mode.RECORD) {
+            save();
+        }
+    }
+
+    /**
+     * The calls recorded in a cassette file.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Interaction> load(Path file) {
+        if (!Files.isRegularFile(file)) {
+            throw new RuntimeException("No cassette at " + file + "; record one with -Dtaxmind.cassette=record");
+        }
+        Map<String, Object> raw;
+        try {
+            raw = JSON.toType(Files.readString(file), Json.MAP_TYPE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read cassette " + file + ": " + e.getMessage(), e);
+        }
+        int version = ((Number) raw.get("version")).intValue();
+        // versions 1 and 2 lack (part of) the request side; they still replay
+        if (version < 1 || version > FORMAT_VERSION) {
+            throw new RuntimeException("Cassette " + file + " has format version " + version + ", expected "
+                + FORMAT_VERSION + "; record it again");
+        }
+        List<Interaction> interactions = new ArrayList<>();
+        for (Map<String, Object> entry : (List<Map<String, Object>>) raw.get("interactions")) {
+            interactions.add(Interaction.fromMap(entry));
+        }
+        return interactions;
+    }
+
+    private synchronized void save() {
+        Map<String, Object> raw = new LinkedHashMap<>();
+        raw.put("version", FORMAT_VERSION);
+        raw.put("origin", origin);
+        raw.put("recordedAt", Instant.now().toString());
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (Interaction interaction : recorded) {
+            entries.add(interaction.toMap());
+        }
+        raw.put("interactions", entries);
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            Files.write(tmp, JSON.toJson(raw).getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            System.out.println("[cassette] Recorded " + recorded.size() + " call(s) to " + file);
+        } catch (IOException e) {
+            System.out.println("[cassette] Failed to save " + file + ": " + e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void onPaused(DevTools devTools, ApiCassette cassette, Map<String, Object> params) {
+        String requestId = (String) params.get("requestId");
+        if (cassette == null) {
+            continueRequest(devTools, requestId);
+            return;
+        }
+        Map<String, Object> request = (Map<String, Object>) params.get("request");
+        URI uri = URI.create((String) request.get("url"));
+        String method = (String) request.get("method");
+        String path = uri.getRawPath() + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+        String bodyHash = hash((String) request.get("postData"));
+        try {
+            if (cassette.mode == Mode.RECORD) {
+                cassette.record(requestId, uri, method, path, bodyHash, request, params);
+            } else {
+                cassette.replay(requestId, method, path, bodyHash);
+            }
+        } catch (Exception e) {
+            System.out.println("[cassette] " + method + " " + path + ": " + e.getMessage());
+            continueRequest(devTools, requestId);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void record(String requestId, URI uri, String method, String path, String bodyHash,
+                        Map<String, Object> request, Map<String, Object> params) {
+        Number status = (Number) params.get("responseStatusCode");
+        if (status == null || (status.intValue() >= 300 && status.intValue() < 400)) {
+            // failed or redirected; the final response is paused again
+            continueRequest(devTools, requestId);
+            return;
+        }
+        Map<String, Object> body = devTools.send(new Command<>("Fetch.getResponseBody", Map.of("requestId", requestId), Json.MAP_TYPE));
+        byte[] bytes = Boolean.TRUE.equals(body.get("base64Encoded"))
+            ? Base64.getDecoder().decode((String) body.get("body"))
+            : ((String) body.get("body")).getBytes(StandardCharsets.UTF_8);
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (Map<String, Object> header : (List<Map<String, Object>>) params.get("responseHeaders")) {
+            String name = ((String) header.get("name")).toLowerCase(Locale.ROOT);
+            if (!DROPPED_HEADERS.contains(name)) {
+                headers.merge(name, redactHeader(name, (String) header.get("value")), (a, b) -> a + "\n" + b);
+            }
+        }
+        bytes = redactBody(bytes);
+        String callOrigin = uri.getScheme() + "://" + uri.getRawAuthority();
+        String contentType = null;
+        Map<String, String> requestHeaders = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> header : ((Map<String, Object>) request.getOrDefault("headers", Map.of())).entrySet()) {
+            String name = header.getKey().toLowerCase(Locale.ROOT);
+            if (name.equals("content-type")) {
+                contentType = String.valueOf(header.getValue());
+            } else if (!BROWSER_HEADERS.contains(name) && !name.startsWith("sec-") && !name.startsWith(":")) {
+                requestHeaders.put(name, requestHeader(name, String.valueOf(header.getValue())));
+            }
+        }
+        synchronized (this) {
+            if (origin == null) {
+                origin = callOrigin;
+            }
+            recorded.add(new Interaction(callOrigin, method, path, bodyHash, template((String) request.get("postData")),
+                contentType, requestHeaders, status.intValue(), headers, bytes));
+        }
+        continueRequest(devTools, requestId);
+    }
+
+    private void replay(String requestId, String method, String path, String bodyHash) {
+        Interaction interaction;
+        synchronized (this) {
+            interaction = next(method, path, bodyHash);
+        }
+        Map<String, Object> fulfil = new LinkedHashMap<>();
+        fulfil.put("requestId", requestId);
+        if (interaction == null) {
+            System.out.println("[cassette] No recorded response for " + method + " " + path + ", answering 404");
+            fulfil.put("responseCode", 404);
+            fulfil.put("responseHeaders", List.of(Map.of("name", "content-type", "value", "application/json")));
+            fulfil.put("body", Base64.getEncoder().encodeToString("{\"error\":\"not in cassette\"}".getBytes(StandardCharsets.UTF_8)));
+        } else {
+            List<Map<String, Object>> headers = new ArrayList<>();
+            interaction.headers.forEach((name, values) -> {
+                for (String value : values.split("\n")) {
+                    headers.add(Map.of("name", name, "value", value));
+                }
+            });
+            fulfil.put("responseCode", interaction.status);
+            fulfil.put("responseHeaders", headers);
+            fulfil.put("body", Base64.getEncoder().encodeToString(interaction.body));
+        }
+        long delay = latency[0] + (latency[1] > latency[0] ? ThreadLocalRandom.current().nextLong(latency[1] - latency[0] + 1) : 0);
+        Runnable send = () -> {
+            try {
+                devTools.send(new Command<>("Fetch.fulfillRequest", fulfil));
+            } catch (Exception e) {
+                System.out.println("[cassette] Failed to answer " + method + " " + path + ": " + e.getMessage());
+            }
+        };
+        if (delay > 0) {
+            DELAYS.schedule(send, delay, TimeUnit.MILLISECONDS);
+        } else {
+            send.run();
+        }
+    }
+
+    /**
+     * The next recorded response for the call, preferring one with the same request body; the
+     * last one is repeated once the others are used up.
+     */
+    private Interaction next(String method, String path, String bodyHash) {
+        String prefix = method + " " + path + " ";
+        Deque<Interaction> queue = remaining.get(prefix + bodyHash);
+        if (queue == null) {
+            for (Map.Entry<String, Deque<Interaction>> e : remaining.entrySet()) {
+                if (e.getKey().startsWith(prefix)) {
+                    queue = e.getValue();
+                    break;
+                }
+            }
+        }
+        if (queue == null || queue.isEmpty()) {
+            return null;
+        }
+        return queue.size() > 1 ? queue.poll() : queue.peek();
+    }
+
+    private static void continueRequest(DevTools devTools, String requestId) {
+        try {
+            devTools.send(new Command<>("Fetch.continueRequest", Map.of("requestId", requestId)));
+        } catch (Exception ignored) {
+        }
+    }
+
+    /**
+     * The request body with every credential-like top-level field replaced by a ${field}
+     * placeholder, so the cassette can drive protocol-level replays without storing secrets;
+     * null for bodies that are not JSON objects.
+     */
+    @SuppressWarnings("unchecked")
+    private static String template(String postData) {
+        if (postData == null || !postData.trim().startsWith("{")) {
+            return null;
+        }
+        try {
+            Map<String, Object> fields = new LinkedHashMap<>(JSON.toType(postData, Json.MAP_TYPE));
+            for (Map.Entry<String, Object> field : fields.entrySet()) {
+                if (SECRET_FIELDS.matcher(field.getKey()).matches()) {
+                    field.setValue("${" + field.getKey() + "}");
+                }
+            }
+            return JSON.toJson(fields);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * A request header as the load driver should send it: credentials become placeholders,
+     * "${token}" after the authorization scheme and "${name}" for other credential-like headers.
+     */
+    static String requestHeader(String name, String value) {
+        if (name.equals("authorization") || name.equals("proxy-authorization")) {
+            int space = value.indexOf(' ');
+            return space > 0 ? value.substring(0, space) + " ${token}" : "${token}";
+        }
+        return SECRET_HEADERS.matcher(name).matches() ? "${" + name + "}" : value;
+    }
+
+    /**
+     * A response header with its secret part replaced: the value of each cookie in set-cookie
+     * (name and attributes are kept, so replays still set the cookie), the whole value of
+     * other credential-like headers.
+     */
+    static String redactHeader(String name, String value) {
+        if (name.equals("set-cookie")) {
+            int eq = value.indexOf('=');
+            int end = value.indexOf(';');
+            if (eq < 0) {
+                return value;
+            }
+            String cookie = value.substring(0, eq).trim();
+            return cookie + "=${" + cookie + "}" + (end > eq ? value.substring(end) : "");
+        }
+        return SECRET_HEADERS.matcher(name).matches() ? "${" + name + "}" : value;
+    }
+
+    /**
+     * A JSON response body with every token-like or personal field, at any depth, replaced by
+     * a ${field} placeholder; other bodies unchanged.
+     */
+    static byte[] redactBody(byte[] body) {
+        String text = new String(body, StandardCharsets.UTF_8).trim();
+        if (!text.startsWith("{") && !text.startsWith("[")) {
+            return body;
+        }
+        try {
+            Object parsed = JSON.toType(text, Json.OBJECT_TYPE);
+            return JSON.toJson(redactValue(null, parsed)).getBytes(StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            return body;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object redactValue(String field, Object value) {
+        if (value instanceof Map) {
+            Map<String, Object> redacted = new LinkedHashMap<>();
+            ((Map<String, Object>) value).forEach((k, v) -> redacted.put(k, redactValue(k, v)));
+            return redacted;
+        }
+        if (value instanceof List) {
+            List<Object> redacted = new ArrayList<>();
+            for (Object item : (List<Object>) value) {
+                redacted.add(redactValue(field, item));
+            }
+            return redacted;
+        }
+        if (field != null && value != null && !(value instanceof Boolean) && SECRET_BODY_FIELDS.matcher(field).matches()) {
+            return "${" + field + "}";
+        }
+        return value;
+    }
+
+    private static long[] latency() {
+        String configured = System.getProperty("taxmind.cassette.latency", "0").trim();
+        String[] range = configured.split("-", 2);
+        long min = Long.parseLong(range[0].trim());
+        long max = range.length > 1 ? Long.parseLong(range[1].trim()) : min;
+        return new long[]{min, Math.max(min, max)};
+    }
+
+    private static String hash(String body) {
+        if (body == null || body.isEmpty()) {
+            return "-";
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (Exception e) {
+            return "-";
+        }
+    }
+
+    /**
+     * One recorded backend call.
+     */
+    public static final class Interaction {
+        /** scheme://host[:port] the call went to; null in version 1 cassettes */
+        public final String origin;
+        public final String method;
+        /** path and query, without the origin */
+        public final String path;
+        /** truncated SHA-256 of the request body, "-" when there was none */
+        public final String requestHash;
+        /** JSON request body with credentials as ${field} placeholders, or null */
+        public final String requestBody;
+        public final String requestContentType;
+        /** lower-case name -> value of the headers the app set, credentials as placeholders; empty before version 3 */
+        public final Map<String, String> requestHeaders;
+        public final int status;
+        /** lower-case header name -> value; repeated headers are joined with newlines */
+        public final Map<String, String> headers;
+        public final byte[] body;
+
+        Interaction(String origin, String method, String path, String requestHash, String requestBody,
+                    String requestContentType, Map<String, String> requestHeaders, int status,
+                    Map<String, String> headers, byte[] body) {
+            this.origin = origin;
+            this.method = method;
+            this.path = path;
+            this.requestHash = requestHash;
+            this.requestBody = requestBody;
+            this.requestContentType = requestContentType;
+            this.requestHeaders = requestHeaders;
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        String key() {
+            return method + " " + path + " " + requestHash;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("origin", origin);
+            map.put("method", method);
+            map.put("path", path);
+            map.put("requestHash", requestHash);
+            map.put("requestBody", requestBody);
+            map.put("requestContentType", requestContentType);
+            map.put("requestHeaders", requestHeaders);
+            map.put("status", status);
+            map.put("headers", headers);
+            String text = new String(body, StandardCharsets.UTF_8);
+            if (Arrays.equals(text.getBytes(StandardCharsets.UTF_8), body)) {
+                map.put("body", text);
+            } else {
+                map.put("bodyBase64", Base64.getEncoder().encodeToString(body));
+            }
+            return map;
+        }
+
+        @SuppressWarnings("unchecked")
+        static Interaction fromMap(Map<String, Object> map) {
+            byte[] body = map.containsKey("bodyBase64")
+                ? Base64.getDecoder().decode((String) map.get("bodyBase64"))
+                : String.valueOf(map.getOrDefault("body", "")).getBytes(StandardCharsets.UTF_8);
+            Map<String, String> requestHeaders = new LinkedHashMap<>();
+            ((Map<String, Object>) map.getOrDefault("requestHeaders", Map.of())).forEach((k, v) -> requestHeaders.put(k, String.valueOf(v)));
+            Map<String, String> headers = new LinkedHashMap<>();
+            ((Map<String, Object>) map.getOrDefault("headers", Map.of())).forEach((k, v) -> headers.put(k, String.valueOf(v)));
+            return new Interaction((String) map.get("origin"), (String) map.get("method"), (String) map.get("path"),
+                (String) map.get("requestHash"), (String) map.get("requestBody"), (String) map.get("requestContentType"),
+                requestHeaders, ((Number) map.get("status")).intValue(), headers, body);
+        }
+    }
+}
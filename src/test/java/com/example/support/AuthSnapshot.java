@@ -0,0 +1,211 @@
+package com.example.support;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Serialized authenticated browser state: cookies plus localStorage and sessionStorage
+ * of the app's origin.
+ *
+ * Capturing after one real login and restoring into later sessions lets tests that are not
+ * about login skip the login + OTP chain. Snapshots carry an expiry and are ignored once it
+ * has passed; the caller is still expected to verify the restored state and fall back to a
+ * real login when the app rejects it.
+ */
+public final class AuthSnapshot {
+    private static final int FORMAT_VERSION = 1;
+    private static final Json JSON = new Json();
+    private static final ConcurrentMap<String, Object> LOCKS = new ConcurrentHashMap<>();
+
+    private static final String READ_STORAGE =
+        "var read = function (s) { var o = {}; if (!s) { return o; }"
+            + " for (var i = 0; i < s.length; i++) { var k = s.key(i); o[k] = s.getItem(k); } return o; };"
+            + "var get = function (name) { try { return window[name]; } catch (e) { return null; } };"
+            + "return { origin: location.origin, local: read(get('localStorage')), session: read(get('sessionStorage')) };";
+
+    private static final String WRITE_STORAGE =
+        "var write = function (s, values) { if (!s) { return; }"
+            + " Object.keys(values).forEach(function (k) { s.setItem(k, values[k]); }); };"
+            + "write(window.localStorage, arguments[0]); write(window.sessionStorage, arguments[1]);";
+
+    private final String origin;
+    private final List<Map<String, Object>> cookies;
+    private final Map<String, String> localStorage;
+    private final Map<String, String> sessionStorage;
+    private final long expiresAt;
+
+    private AuthSnapshot(String origin, List<Map<String, Object>> cookies, Map<String, String> localStorage,
+                         Map<String, String> sessionStorage, long expiresAt) {
+        this.origin = origin;
+        this.cookies = cookies;
+        this.localStorage = localStorage;
+        this.sessionStorage = sessionStorage;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Default snapshot location for a user; kept under target/ since it holds live session tokens.
+     */
+    public static Path fileFor(String user) {
+        return Paths.get("target", "auth-snapshots", user.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+    }
+
+    /**
+     * Monitor guarding login and snapshot capture for one user across parallel tests.
+     */
+    public static Object lockFor(String user) {
+        return LOCKS.computeIfAbsent(user, k -> new Object());
+    }
+
+    /**
+     * Snapshot lifetime, -Dtaxmind.auth.ttlMinutes (default 30).
+     */
+    public static Duration defaultTtl() {
+        return Duration.ofMinutes(Long.getLong("taxmind.auth.ttlMinutes", 30L));
+    }
+
+    /**
+     * Read the authenticated state of the page the driver is currently on.
+     */
+    @SuppressWarnings("unchecked")
+    public static AuthSnapshot capture(WebDriver driver, Duration ttl) {
+        Map<String, Object> storage = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(READ_STORAGE);
+        long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        for (Cookie c : driver.manage().getCookies()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", c.getName());
+            entry.put("value", c.getValue());
+            entry.put("domain", c.getDomain());
+            entry.put("path", c.getPath());
+            entry.put("secure", c.isSecure());
+            entry.put("httpOnly", c.isHttpOnly());
+            entry.put("sameSite", c.getSameSite());
+            if (c.getExpiry() != null) {
+                entry.put("expiry", c.getExpiry().getTime());
+                // a snapshot is only as good as the cookies in it
+                expiresAt = Math.min(expiresAt, c.getExpiry().getTime());
+            }
+            cookies.add(entry);
+        }
+        return new AuthSnapshot((String) storage.get("origin"), cookies,
+            toStringMap(storage.get("local")), toStringMap(storage.get("session")), expiresAt);
+    }
+
+    /**
+     * Load a snapshot from disk; returns null when it is missing, unreadable or expired.
+     */
+    @SuppressWarnings("unchecked")
+    public static AuthSnapshot load(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            Map<String, Object> raw = JSON.toType(Files.readString(file), Json.MAP_TYPE);
+            if (((Number) raw.get("version")).intValue() != FORMAT_VERSION) {
+                return null;
+            }
+            AuthSnapshot snapshot = new AuthSnapshot(
+                (String) raw.get("origin"),
+                (List<Map<String, Object>>) raw.get("cookies"),
+                toStringMap(raw.get("localStorage")),
+                toStringMap(raw.get("sessionStorage")),
+                ((Number) raw.get("expiresAt")).longValue());
+            if (snapshot.isExpired()) {
+                System.out.println("[auth-snapshot] Ignoring expired snapshot " + file);
+                return null;
+            }
+            return snapshot;
+        } catch (Exception e) {
+            System.out.println("[auth-snapshot] Ignoring unreadable snapshot " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    public void save(Path file) {
+        Map<String, Object> raw = new LinkedHashMap<>();
+        raw.put("version", FORMAT_VERSION);
+        raw.put("origin", origin);
+        raw.put("expiresAt", expiresAt);
+        raw.put("cookies", cookies);
+        raw.put("localStorage", localStorage);
+        raw.put("sessionStorage", sessionStorage);
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            Files.write(tmp, JSON.toJson(raw).getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("[auth-snapshot] Failed to save snapshot " + file + ": " + e.getMessage());
+        }
+    }
+
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= expiresAt;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Put the captured cookies and storage into the driver's browser. The driver is left on
+     * the origin's robots.txt, a plain-text page no {@link BrowserProfile} blocks (a 404 still
+     * gives a document of the origin); navigate to the app afterwards.
+     *
+     * @throws RuntimeException when the browser could not be put on the origin
+     */
+    public void restore(WebDriver driver) {
+        // cookies and storage can only be set for the document's own origin
+        driver.navigate().to(origin + "/robots.txt");
+        for (Map<String, Object> c : cookies) {
+            Cookie.Builder builder = new Cookie.Builder((String) c.get("name"), (String) c.get("value"))
+                .path((String) c.get("path"))
+                .isSecure(Boolean.TRUE.equals(c.get("secure")))
+                .isHttpOnly(Boolean.TRUE.equals(c.get("httpOnly")));
+            if (c.get("domain") != null) {
+                builder.domain((String) c.get("domain"));
+            }
+            if (c.get("sameSite") != null) {
+                builder.sameSite((String) c.get("sameSite"));
+            }
+            if (c.get("expiry") != null) {
+                builder.expiresOn(new Date(((Number) c.get("expiry")).longValue()));
+            }
+            try {
+                driver.manage().addCookie(builder.build());
+            } catch (Exception e) {
+                System.out.println("[auth-snapshot] Could not restore cookie " + c.get("name") + ": " + e.getMessage());
+            }
+        }
+        ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE, localStorage, sessionStorage);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> toStringMap(Object value) {
+        Map<String, String> result = new LinkedHashMap<>();
+        if (value instanceof Map) {
+            for (Map.Entry<String, Object> e : ((Map<String, Object>) value).entrySet()) {
+                result.put(e.getKey(), e.getValue() == null ? null : String.valueOf(e.getValue()));
+            }
+        }
+        return result;
+    }
+}
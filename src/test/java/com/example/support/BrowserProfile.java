@@ -0,0 +1,109 @@
+package com.example.support;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How a Chrome session is launched.
+ *
+ * A test class picks its profile with {@link UseBrowserProfile}; -Dtaxmind.browser.profile
+ * (standard or lean) overrides that for every class. Each profile has its own
+ * {@link DriverPool}.
+ */
+public enum BrowserProfile {
+    /** Maximized, headed Chrome that loads everything, as a user would see the app. */
+    STANDARD,
+
+    /**
+     * Headless Chrome for flows that only need the DOM: fixed viewport, and trackers, images
+     * and video blocked over CDP. Tune with -Dtaxmind.lean.viewport=WIDTHxHEIGHT,
+     * -Dtaxmind.lean.block=pattern,pattern (replaces the default list; '*' is a wildcard,
+     * empty blocks nothing), -Dtaxmind.lean.disableGpu and -Dtaxmind.lean.disableExtensions.
+     */
+    LEAN;
+
+    private static final List<String> DEFAULT_BLOCKED = Arrays.asList(
+        // analytics and third-party tags
+        "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*", "*connect.facebook.net*",
+        "*hotjar.com*", "*clarity.ms*", "*linkedin.com/px*", "*snap.licdn.com*",
+        // pixels
+        "*.png", "*.png?*", "*.jpg", "*.jpg?*", "*.jpeg", "*.jpeg?*", "*.gif", "*.gif?*", "*.webp", "*.webp?*",
+        "*.ico", "*.ico?*",
+        // video
+        "*.mp4", "*.mp4?*", "*.webm", "*.webm?*", "*youtube.com/embed*", "*player.vimeo.com*");
+
+    /**
+     * The profile for a test class: the -Dtaxmind.browser.profile override, else the class's
+     * {@link UseBrowserProfile}, else {@link #STANDARD}.
+     */
+    public static BrowserProfile forTestClass(Class<?> testClass) {
+        String override = System.getProperty("taxmind.browser.profile");
+        if (override != null && !override.isEmpty()) {
+            return valueOf(override.trim().toUpperCase());
+        }
+        UseBrowserProfile annotation = testClass.getAnnotation(UseBrowserProfile.class);
+        return annotation != null ? annotation.value() : STANDARD;
+    }
+
+    ChromeOptions options() {
+        ChromeOptions options = new ChromeOptions();
+        if (this == LEAN) {
+            options.addArguments("--headless=new");
+            options.addArguments("--window-size=" + System.getProperty("taxmind.lean.viewport", "1366x900").replace('x', ','));
+            if (!"false".equalsIgnoreCase(System.getProperty("taxmind.lean.disableGpu"))) {
+                options.addArguments("--disable-gpu");
+            }
+            if (!"false".equalsIgnoreCase(System.getProperty("taxmind.lean.disableExtensions"))) {
+                options.addArguments("--disable-extensions");
+            }
+        } else {
+            options.addArguments("--start-maximized");
+        }
+        options.addArguments("--disable-blink-features=AutomationControlled");
+        options.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
+        options.setExperimentalOption("excludeSwitches", new String[]{"enable-automation"});
+        options.setExperimentalOption("useAutomationExtension", false);
+        return options;
+    }
+
+    /**
+     * Settings that can only be applied to a running session.
+     */
+    void configure(WebDriver driver) {
+        if (this != LEAN) {
+            return;
+        }
+        List<String> patterns = blockedPatterns();
+        if (patterns.isEmpty()) {
+            return;
+        }
+        DevTools devTools = Cdp.session(driver);
+        if (devTools == null) {
+            System.out.println("[browser-profile] No DevTools connection, resources will not be blocked");
+            return;
+        }
+        devTools.send(new Command<>("Network.enable", Map.of()));
+        devTools.send(new Command<>("Network.setBlockedURLs", Map.of("urls", patterns)));
+    }
+
+    private static List<String> blockedPatterns() {
+        String configured = System.getProperty("taxmind.lean.block");
+        if (configured == null) {
+            return DEFAULT_BLOCKED;
+        }
+        List<String> patterns = new ArrayList<>();
+        for (String p : configured.split(",")) {
+            if (!p.trim().isEmpty()) {
+                patterns.add(p.trim());
+            }
+        }
+        return patterns;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.support;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * One Chrome DevTools Protocol session per browser, shared by every helper that listens to
+ * or drives CDP.
+ *
+ * Helpers only use raw protocol method and event names, so they do not depend on the
+ * versioned devtools bindings matching the installed Chrome.
+ */
+public final class Cdp {
+    private static final Map<WebDriver, DevTools> SESSIONS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private Cdp() {
+    }
+
+    /**
+     * The driver underneath any decorators, which is what owns the DevTools connection.
+     */
+    public static WebDriver unwrap(WebDriver driver) {
+        WebDriver current = driver;
+        while (current instanceof WrapsDriver) {
+            WebDriver inner = ((WrapsDriver) current).getWrappedDriver();
+            if (inner == null || inner == current) {
+                break;
+            }
+            current = inner;
+        }
+        return current;
+    }
+
+    /**
+     * The DevTools session of the driver's browser, opened on first use.
+     *
+     * @return the session, or null when the browser does not speak CDP or the connection fails
+     */
+    public static DevTools session(WebDriver driver) {
+        WebDriver raw = unwrap(driver);
+        if (!(raw instanceof HasDevTools)) {
+            return null;
+        }
+        synchronized (SESSIONS) {
+            DevTools devTools = SESSIONS.get(raw);
+            if (devTools == null) {
+                try {
+                    devTools = ((HasDevTools) raw).getDevTools();
+                    devTools.createSessionIfThereIsNotOne();
+                } catch (Exception e) {
+                    System.out.println("[cdp] DevTools unavailable: " + e.getMessage());
+                    return null;
+                }
+                SESSIONS.put(raw, devTools);
+            }
+            return devTools;
+        }
+    }
+
+    /**
+     * Drop the driver's session, e.g. before the browser is quit.
+     */
+    public static void close(WebDriver driver) {
+        DevTools devTools = SESSIONS.remove(unwrap(driver));
+        if (devTools != null) {
+            try {
+                devTools.clearListeners();
+                devTools.close();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.support;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the chromedriver binary once per JVM and remembers the result on disk.
+ *
+ * WebDriverManager does a version lookup (and possibly a download) every time it is asked
+ * to set up a driver. The first successful resolution is kept for the rest of the JVM and
+ * written to chromedriver.properties in {@link LocalCache#dir()}; later runs reuse it as
+ * long as the binary still exists, the installed Chrome has the same major version and the
+ * descriptor is younger than -Dtaxmind.driver.ttlHours (default 24).
+ *
+ * With -Dtaxmind.driver.offline=true a cached binary matching the installed Chrome is used
+ * whatever its age, so the network is never touched. If resolution has to go online and
+ * fails, any cached binary is used as a last resort.
+ */
+public final class ChromeDriverResolver {
+    private static final String DRIVER_PROPERTY = "webdriver.chrome.driver";
+    private static final Path DESCRIPTOR = LocalCache.file("chromedriver.properties");
+    private static final Pattern VERSION = Pattern.compile("(\\d+)(\\.\\d+)+");
+
+    private static volatile Resolution resolved;
+
+    private ChromeDriverResolver() {
+    }
+
+    /**
+     * Where the driver came from and which versions it was resolved for.
+     */
+    public static final class Resolution {
+        private final String driverPath;
+        private final String driverVersion;
+        private final String browserVersion;
+        private final long resolvedAt;
+
+        Resolution(String driverPath, String driverVersion, String browserVersion, long resolvedAt) {
+            this.driverPath = driverPath;
+            this.driverVersion = driverVersion;
+            this.browserVersion = browserVersion;
+            this.resolvedAt = resolvedAt;
+        }
+
+        public String getDriverPath() {
+            return driverPath;
+        }
+
+        public String getDriverVersion() {
+            return driverVersion;
+        }
+
+        public String getBrowserVersion() {
+            return browserVersion;
+        }
+
+        boolean binaryExists() {
+            return driverPath != null && Files.isExecutable(Paths.get(driverPath));
+        }
+
+        boolean isOlderThan(Duration ttl) {
+            return System.currentTimeMillis() - resolvedAt > ttl.toMillis();
+        }
+
+        boolean matchesBrowser(String installedVersion) {
+            return installedVersion == null || major(installedVersion).equals(major(browserVersion));
+        }
+    }
+
+    /**
+     * Make sure {@code webdriver.chrome.driver} points at a usable binary, resolving it if needed.
+     */
+    public static Resolution resolve() {
+        Resolution current = resolved;
+        if (current != null) {
+            return current;
+        }
+        synchronized (ChromeDriverResolver.class) {
+            if (resolved == null) {
+                resolved = resolveOnce();
+                System.setProperty(DRIVER_PROPERTY, resolved.driverPath);
+            }
+            return resolved;
+        }
+    }
+
+    private static Resolution resolveOnce() {
+        boolean offline = Boolean.getBoolean("taxmind.driver.offline");
+        Duration ttl = Duration.ofHours(Long.getLong("taxmind.driver.ttlHours", 24L));
+        Resolution cached = readDescriptor();
+
+        if (cached != null && cached.binaryExists() && cached.matchesBrowser(detectBrowserVersion())) {
+            if (offline || !cached.isOlderThan(ttl)) {
+                System.out.println("[driver-resolver] Using cached chromedriver " + cached.driverVersion + (offline ? " (offline)" : ""));
+                return cached;
+            }
+        }
+
+        try {
+            WebDriverManager wdm = WebDriverManager.chromedriver();
+            wdm.setup();
+            String driverVersion = wdm.getDownloadedDriverVersion();
+            String browserVersion = Optional.ofNullable(detectBrowserVersion()).orElse(driverVersion);
+            Resolution fresh = new Resolution(wdm.getDownloadedDriverPath(), driverVersion, browserVersion, System.currentTimeMillis());
+            writeDescriptor(fresh);
+            System.out.println("[driver-resolver] Resolved chromedriver " + driverVersion + " for Chrome " + browserVersion);
+            return fresh;
+        } catch (RuntimeException e) {
+            if (cached != null && cached.binaryExists()) {
+                System.out.println("[driver-resolver] Resolution failed (" + e.getMessage() + "), falling back to cached chromedriver " + cached.driverVersion);
+                return cached;
+            }
+            throw e;
+        }
+    }
+
+    private static Resolution readDescriptor() {
+        Properties props = LocalCache.readProperties(DESCRIPTOR);
+        String path = props.getProperty("driverPath");
+        if (path == null) {
+            return null;
+        }
+        long resolvedAt;
+        try {
+            resolvedAt = Long.parseLong(props.getProperty("resolvedAt", "0"));
+        } catch (NumberFormatException e) {
+            resolvedAt = 0L;
+        }
+        return new Resolution(path, props.getProperty("driverVersion", ""), props.getProperty("browserVersion", ""), resolvedAt);
+    }
+
+    private static void writeDescriptor(Resolution resolution) {
+        Properties props = new Properties();
+        props.setProperty("driverPath", resolution.driverPath);
+        props.setProperty("driverVersion", String.valueOf(resolution.driverVersion));
+        props.setProperty("browserVersion", String.valueOf(resolution.browserVersion));
+        props.setProperty("resolvedAt", String.valueOf(resolution.resolvedAt));
+        LocalCache.writeProperties(DESCRIPTOR, props, "chromedriver resolution cache");
+    }
+
+    /**
+     * Ask the locally installed Chrome for its version without going to the network.
+     * Returns null when it cannot be determined (e.g. no --version support on Windows).
+     */
+    private static String detectBrowserVersion() {
+        try {
+            Optional<Path> browser = WebDriverManager.chromedriver().getBrowserPath();
+            if (!browser.isPresent()) {
+                return null;
+            }
+            Process process = new ProcessBuilder(browser.get().toString(), "--version").redirectErrorStream(true).start();
+            String output;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                output = reader.readLine();
+            }
+            process.waitFor(5, TimeUnit.SECONDS);
+            if (output == null) {
+                return null;
+            }
+            Matcher m = VERSION.matcher(output);
+            return m.find() ? m.group() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String major(String version) {
+        if (version == null) {
+            return "";
+        }
+        int dot = version.indexOf('.');
+        return dot < 0 ? version : version.substring(0, dot);
+    }
+}
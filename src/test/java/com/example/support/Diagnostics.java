@@ -0,0 +1,206 @@
+package com.example.support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Failure captures (screenshot, DOM journal or page source, URL, iframes, the failure itself),
+ * written to target/diagnostics/&lt;name&gt;-&lt;time&gt;/ by a background writer.
+ *
+ * The calling thread only does what needs the browser in its failing state: it fetches the
+ * screenshot as chromedriver's base64 string and the page's {@link DomJournal}, then queues
+ * them. The journal is written as journal.html, which replays the DOM changes that led up to
+ * the failure; pages without one (DevTools unavailable, -Dtaxmind.journal=false) get a
+ * gzipped page source instead. Decoding, rendering and the file writes happen on the writer
+ * thread. The queue is
+ * bounded (-Dtaxmind.diagnostics.queue, default 8); when it is full the capture is dropped
+ * before anything is fetched, so a run where hundreds of sessions fail at once does not stall
+ * on its own diagnostics. Pending captures are written out at JVM shutdown.
+ *
+ * Tests get a capture on failure from {@link DiagnosticsRule}, workflows from
+ * {@link SessionOrchestrator}; -Dtaxmind.diagnostics=false turns capturing off.
+ */
+public final class Diagnostics {
+    private static final Path DIR = Paths.get("target", "diagnostics");
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final String FRAMES_SCRIPT =
+        "return Array.from(document.querySelectorAll('iframe')).map(function (f) { return f.src || f.name || '(inline)'; });";
+
+    private static final Diagnostics SHARED = new Diagnostics();
+
+    private final boolean enabled;
+    private final ThreadPoolExecutor writer;
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger dropped = new AtomicInteger();
+
+    private Diagnostics() {
+        this.enabled = !"false".equalsIgnoreCase(System.getProperty("taxmind.diagnostics"));
+        int capacity = Math.max(1, Integer.getInteger("taxmind.diagnostics.queue", 8));
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(capacity), r -> {
+            Thread t = new Thread(r, "diagnostics-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(this::drain, "diagnostics-drain"));
+    }
+
+    public static Diagnostics shared() {
+        return SHARED;
+    }
+
+    /**
+     * Capture what the browser shows now and queue it for writing. Never throws; a browser
+     * that no longer answers yields a capture with whatever could still be fetched.
+     *
+     * @param name    test or workflow name, used for the directory
+     * @param failure what went wrong; may be null
+     * @return the directory the capture will be written to, or null when it was dropped
+     */
+    public Path capture(WebDriver driver, String name, Throwable failure) {
+        if (!enabled || driver == null) {
+            return null;
+        }
+        if (writer.getQueue().remainingCapacity() == 0) {
+            dropped.incrementAndGet();
+            System.out.println("[diagnostics] queue full, dropped capture of " + name);
+            return null;
+        }
+
+        Capture capture = new Capture(DIR.resolve(safe(name) + "-" + LocalDateTime.now().format(STAMP)));
+        try {
+            capture.url = driver.getCurrentUrl();
+            capture.title = driver.getTitle();
+        } catch (Exception ignored) {
+        }
+        try {
+            if (driver instanceof TakesScreenshot) {
+                capture.screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+            }
+        } catch (Exception e) {
+            capture.notes.append("screenshot failed: ").append(e.getMessage()).append('\n');
+        }
+        capture.journal = DomJournal.take(driver);
+        if (capture.journal != null) {
+            capture.steps = StepTimer.timeline();
+        } else {
+            try {
+                capture.source = driver.getPageSource();
+            } catch (Exception e) {
+                capture.notes.append("page source failed: ").append(e.getMessage()).append('\n');
+            }
+        }
+        try {
+            Object frames = ((JavascriptExecutor) driver).executeScript(FRAMES_SCRIPT);
+            if (frames instanceof List) {
+                capture.frames = (List<?>) frames;
+            }
+        } catch (Exception ignored) {
+        }
+        if (failure != null) {
+            StringWriter trace = new StringWriter();
+            failure.printStackTrace(new PrintWriter(trace));
+            capture.failure = trace.toString();
+        }
+
+        try {
+            writer.execute(capture::write);
+            return capture.dir;
+        } catch (RejectedExecutionException e) {
+            // filled up while this capture was being fetched, or the JVM is shutting down
+            dropped.incrementAndGet();
+            System.out.println("[diagnostics] queue full, dropped capture of " + name);
+            return null;
+        }
+    }
+
+    private void drain() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                System.out.println("[diagnostics] gave up waiting for " + writer.getQueue().size() + " pending capture(s)");
+            }
+        } catch (InterruptedException ignored) {
+        }
+        if (written.get() > 0 || dropped.get() > 0) {
+            System.out.println("[diagnostics] written=" + written.get() + " dropped=" + dropped.get() + " in " + DIR.toAbsolutePath());
+        }
+    }
+
+    private static String safe(String name) {
+        return name == null || name.isEmpty() ? "capture" : name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private final class Capture {
+        private final Path dir;
+        private final StringBuilder notes = new StringBuilder();
+        private String url;
+        private String title;
+        private String screenshot;
+        private String source;
+        private String journal;
+        private List<Map<String, Object>> steps = List.of();
+        private List<?> frames = List.of();
+        private String failure;
+
+        private Capture(Path dir) {
+            this.dir = dir;
+        }
+
+        private void write() {
+            try {
+                Files.createDirectories(dir);
+                if (screenshot != null) {
+                    Files.write(dir.resolve("screenshot.png"), Base64.getMimeDecoder().decode(screenshot));
+                }
+                if (journal != null) {
+                    String viewer = DomJournal.viewer(dir.getFileName().toString(), journal, steps);
+                    Files.write(dir.resolve("journal.html"), viewer.getBytes(StandardCharsets.UTF_8));
+                }
+                if (source != null) {
+                    try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(dir.resolve("page.html.gz")))) {
+                        out.write(source.getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+
+                StringBuilder info = new StringBuilder();
+                info.append("url: ").append(url).append('\n');
+                info.append("title: ").append(title).append('\n');
+                info.append("iframes: ").append(frames.size()).append('\n');
+                for (int i = 0; i < frames.size(); i++) {
+                    info.append("  ").append(i).append(": ").append(frames.get(i)).append('\n');
+                }
+                info.append(notes);
+                if (failure != null) {
+                    info.append('\n').append(failure);
+                }
+                Files.write(dir.resolve("info.txt"), info.toString().getBytes(StandardCharsets.UTF_8));
+                written.incrementAndGet();
+                System.out.println("[diagnostics] saved " + dir.toAbsolutePath());
+            } catch (IOException e) {
+                System.out.println("[diagnostics] failed to write " + dir + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.support;
+
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.openqa.selenium.WebDriver;
+
+import java.util.function.Supplier;
+
+/**
+ * Queues a {@link Diagnostics} capture of the test's browser when the test fails.
+ *
+ * A watcher declared as a plain {@code @Rule} runs after {@code @After}, by which time the
+ * session has gone back to the pool; chain it inside the rule that owns the session so the
+ * browser is captured in the state the test left it:
+ *
+ * <pre>
+ * RuleChain.outerRule(session).around(new DiagnosticsRule(() -&gt; driver))
+ * </pre>
+ */
+public class DiagnosticsRule extends TestWatcher {
+    private final Supplier<WebDriver> driver;
+
+    public DiagnosticsRule(Supplier<WebDriver> driver) {
+        this.driver = driver;
+    }
+
+    @Override
+    protected void failed(Throwable e, Description description) {
+        String name = description.getTestClass().getSimpleName() + "." + description.getMethodName();
+        Diagnostics.shared().capture(driver.get(), name, e);
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A MutationObserver journal of the DOM changes in every document a session loads, kept in
+ * the page and only pulled when something fails (see {@link Diagnostics}).
+ *
+ * Each document starts with a baseline of its tree as it was when the journal started (for a
+ * freshly loaded page that is nearly empty: the parser's inserts are journaled like any other
+ * change). After that only deltas are kept - nodes added and removed, attribute and text
+ * changes, client-side URL changes - as compact JSON, with every node known by a numeric id.
+ * Long texts and attribute values are clipped, and script and style contents are not kept.
+ *
+ * The journal is bounded by -Dtaxmind.journal.chars (default 1,000,000; it can overshoot by
+ * half of that): when the deltas since the last baseline reach half the bound, a new baseline
+ * is taken and the oldest parts of the journal are dropped until the rest fits, so the most
+ * recent history is always complete from a baseline onwards.
+ * The journal is carried over same-origin page loads through sessionStorage, tagged with the
+ * lease it belongs to: a journal left behind by the previous test on a pooled session is
+ * ignored, and {@link #stop} keeps the pool's reset from carrying one over in the first place.
+ *
+ * {@link #viewer} turns a pulled journal into a self-contained HTML page that replays it
+ * entry by entry, grouped by the {@link StepTimer} steps of the test.
+ * -Dtaxmind.journal=false turns the journal off; failures then get a page-source dump.
+ */
+public final class DomJournal {
+    private static final String VIEWER_RESOURCE = "/diagnostics/journal-viewer.html";
+    private static final Json JSON = new Json();
+    private static final AtomicLong LEASES = new AtomicLong();
+    /** driver -> identifier of its journal script, so the next lease can replace it */
+    private static final Map<WebDriver, String> SCRIPTS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    static final String JOURNAL_SCRIPT =
+        "(function () {"
+            + "  if (window.__tmJournal || window.top !== window || typeof MutationObserver === 'undefined') { return; }"
+            + "  var MAX_CHARS = %d, MAX_TEXT = 300, KEY = '__tmJournal', LEASE = '%s';"
+            + "  var SKIP = { SCRIPT: 1, STYLE: 1, NOSCRIPT: 1 };"
+            + "  var ids = new WeakMap(), next = 1, segments = [], dropped = 0, lastUrl = location.href, stopped = false;"
+            + "  var id = function (node) {"
+            + "    var i = ids.get(node);"
+            + "    if (!i) { i = next++; ids.set(node, i); }"
+            + "    return i;"
+            + "  };"
+            + "  var clip = function (s) { return s.length > MAX_TEXT ? s.slice(0, MAX_TEXT) + '\\u2026' : s; };"
+            + "  var ser = function (node) {"
+            + "    if (node.nodeType === 3) { return [id(node), '#t', clip(node.nodeValue)]; }"
+            + "    if (node.nodeType === 8) { return [id(node), '#c']; }"
+            + "    if (node.nodeType !== 1) { return null; }"
+            + "    var attrs = {}, kids = [];"
+            + "    for (var a = 0; a < node.attributes.length; a++) { attrs[node.attributes[a].name] = clip(node.attributes[a].value); }"
+            + "    if (!SKIP[node.nodeName]) {"
+            + "      for (var c = node.firstChild; c; c = c.nextSibling) { var k = ser(c); if (k) { kids.push(k); } }"
+            + "    }"
+            + "    return [id(node), node.nodeName.toLowerCase(), attrs, kids];"
+            + "  };"
+            + "  var children = function (parent) {"
+            + "    var kids = [];"
+            + "    for (var c = parent.firstChild; c; c = c.nextSibling) { var k = ser(c); if (k) { kids.push(k); } }"
+            + "    return kids;"
+            + "  };"
+            + "  var total = function () { return segments.reduce(function (n, s) { return n + s.chars; }, 0); };"
+            + "  var baseline = function () {"
+            + "    var entry = JSON.stringify(['b', Date.now(), location.href, id(document), children(document)]);"
+            + "    segments.push({ entries: [entry], chars: entry.length, deltas: 0 });"
+            + "    while (segments.length > 1 && total() > MAX_CHARS) { dropped += segments.shift().entries.length; }"
+            + "  };"
+            + "  var push = function (entry) {"
+            + "    var json = JSON.stringify(entry), segment = segments[segments.length - 1];"
+            + "    segment.entries.push(json); segment.chars += json.length; segment.deltas += json.length;"
+            + "    if (segment.deltas > MAX_CHARS / 2) { baseline(); }"
+            + "  };"
+            + "  try {"
+            + "    var carried = JSON.parse(sessionStorage.getItem(KEY) || 'null');"
+            + "    sessionStorage.removeItem(KEY);"
+            + "    if (carried && carried.lease === LEASE) { segments = carried.segments; dropped = carried.dropped; }"
+            + "  } catch (e) {}"
+            + "  baseline();"
+            + "  new MutationObserver(function (records) {"
+            + "    if (location.href !== lastUrl) { lastUrl = location.href; push(['u', Date.now(), lastUrl]); }"
+            + "    var now = Date.now();"
+            + "    records.forEach(function (r) {"
+            + "      if (r.type === 'childList') {"
+            + "        var added = [], removed = [];"
+            + "        r.addedNodes.forEach(function (n) { var k = ser(n); if (k) { added.push(k); } });"
+            + "        r.removedNodes.forEach(function (n) { var i = ids.get(n); if (i) { removed.push(i); } });"
+            + "        if (added.length || removed.length) {"
+            + "          push(['c', now, id(r.target), r.nextSibling ? id(r.nextSibling) : 0, added, removed]);"
+            + "        }"
+            + "      } else if (r.type === 'attributes') {"
+            + "        var value = r.target.getAttribute(r.attributeName);"
+            + "        push(['a', now, id(r.target), r.attributeName, value === null ? null : clip(value)]);"
+            + "      } else if (r.type === 'characterData') {"
+            + "        push(['t', now, id(r.target), clip(r.target.nodeValue)]);"
+            + "      }"
+            + "    });"
+            + "  }).observe(document, { childList: true, subtree: true, attributes: true, characterData: true });"
+            + "  window.addEventListener('pagehide', function () {"
+            + "    if (stopped) { return; }"
+            + "    try { sessionStorage.setItem(KEY, JSON.stringify({ lease: LEASE, segments: segments, dropped: dropped })); } catch (e) {}"
+            + "  });"
+            + "  window.__tmJournal = {"
+            + "    take: function () {"
+            + "      var entries = [];"
+            + "      segments.forEach(function (s) { entries = entries.concat(s.entries); });"
+            + "      return '{\"dropped\":' + dropped + ',\"entries\":[' + entries.join(',') + ']}';"
+            + "    },"
+            + "    stop: function () {"
+            + "      stopped = true;"
+            + "      try { sessionStorage.removeItem(KEY); } catch (e) {}"
+            + "    }"
+            + "  };"
+            + "})();";
+
+    private static final String TAKE_SCRIPT = "return window.__tmJournal ? window.__tmJournal.take() : null;";
+    private static final String STOP_SCRIPT = "if (window.__tmJournal) { window.__tmJournal.stop(); }";
+
+    private DomJournal() {
+    }
+
+    public static boolean enabled() {
+        return !"false".equalsIgnoreCase(System.getProperty("taxmind.journal"));
+    }
+
+    /**
+     * Journal every document the session loads from now on, and the current one, for a new
+     * lease: called on every lease, it replaces the previous lease's script. Without DevTools
+     * only the current document is journaled.
+     */
+    public static void attach(WebDriver driver) {
+        if (!enabled()) {
+            return;
+        }
+        String script = String.format(JOURNAL_SCRIPT,
+            Math.max(10_000, Integer.getInteger("taxmind.journal.chars", 1_000_000)), LEASES.incrementAndGet());
+        DevTools devTools = Cdp.session(driver);
+        if (devTools != null) {
+            try {
+                devTools.send(new Command<>("Page.enable", Map.of()));
+                String previous = SCRIPTS.remove(Cdp.unwrap(driver));
+                if (previous != null) {
+                    devTools.send(new Command<>("Page.removeScriptToEvaluateOnNewDocument", Map.of("identifier", previous)));
+                }
+                Map<String, Object> added = devTools.send(
+                    new Command<>("Page.addScriptToEvaluateOnNewDocument", Map.of("source", script), Json.MAP_TYPE));
+                SCRIPTS.put(Cdp.unwrap(driver), (String) added.get("identifier"));
+            } catch (Exception e) {
+                System.out.println("[journal] Not journaling new documents: " + e.getMessage());
+            }
+        }
+        if (driver instanceof JavascriptExecutor) {
+            try {
+                ((JavascriptExecutor) driver).executeScript(script);
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    /**
+     * The journal of the current document as JSON, or null when there is none.
+     */
+    public static String take(WebDriver driver) {
+        if (!enabled() || !(driver instanceof JavascriptExecutor)) {
+            return null;
+        }
+        try {
+            Object journal = ((JavascriptExecutor) driver).executeScript(TAKE_SCRIPT);
+            return journal instanceof String ? (String) journal : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stop the current document's journal from carrying itself over to the next page load,
+     * and drop any journal already stored for it. The pool calls this before clearing storage
+     * and leaving the page, so the next lease does not start with this test's history.
+     */
+    public static void stop(WebDriver driver) {
+        if (!enabled() || !(driver instanceof JavascriptExecutor)) {
+            return;
+        }
+        try {
+            ((JavascriptExecutor) driver).executeScript(STOP_SCRIPT);
+        } catch (Exception ignored) {
+        }
+    }
+
+    /**
+     * A self-contained HTML page that replays a journal.
+     *
+     * @param steps the test's steps as returned by {@link StepTimer#timeline()}; may be empty
+     */
+    public static String viewer(String title, String journal, List<Map<String, Object>> steps) {
+        String template;
+        try (InputStream in = DomJournal.class.getResourceAsStream(VIEWER_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("No " + VIEWER_RESOURCE + " on the classpath");
+            }
+            template = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read " + VIEWER_RESOURCE + ": " + e.getMessage(), e);
+        }
+        return template
+            .replace("/*TITLE*/", inScript(JSON.toJson(title)))
+            .replace("/*JOURNAL*/", inScript(journal))
+            .replace("/*STEPS*/", inScript(JSON.toJson(steps)));
+    }
+
+    /** JSON embedded in a script element must not close it */
+    private static String inScript(String json) {
+        return json.replace("</", "<\\/");
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.support;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Text, attributes, visibility and bounding box of every element matching a locator, read
+ * in a single script round trip.
+ *
+ * Use it for inventories (all footer links, all buttons on a page) instead of calling
+ * getText()/getAttribute()/isDisplayed() on each element, which costs one WebDriver request
+ * per call.
+ *
+ * <pre>
+ * for (DomSnapshot.Node link : DomSnapshot.of(driver, By.cssSelector("footer a"), "href")) {
+ *     System.out.println(link.text() + " -> " + link.attribute("href"));
+ * }
+ * </pre>
+ */
+public final class DomSnapshot {
+    private static final String SNAPSHOT_SCRIPT =
+        "var spec = arguments[0], given = arguments[1], names = arguments[2], root = document, doc = document;"
+            + SelectorChain.QUERY_FUNCTION
+            + SelectorChain.VISIBLE_FUNCTION
+            + "var els = spec ? query(spec[0], spec[1]) : given;"
+            + "return els.map(function (el) {"
+            + "  var attrs = {};"
+            + "  if (names.length === 0) {"
+            + "    for (var i = 0; i < el.attributes.length; i++) { attrs[el.attributes[i].name] = el.attributes[i].value; }"
+            + "  } else {"
+            + "    names.forEach(function (n) {"
+            // like getAttribute(): the live property when there is one (resolved href, current value), else the attribute
+            + "      var p = el[n];"
+            + "      attrs[n] = (typeof p === 'string' || typeof p === 'number' || typeof p === 'boolean') ? String(p) : el.getAttribute(n);"
+            + "    });"
+            + "  }"
+            + "  var shown = visible(el), r = el.getBoundingClientRect();"
+            + "  return { element: el, tag: el.tagName.toLowerCase(), text: shown ? (el.innerText || '') : '',"
+            + "    attributes: attrs, visible: shown,"
+            + "    rect: [Math.round(r.left + window.scrollX), Math.round(r.top + window.scrollY), Math.round(r.width), Math.round(r.height)] };"
+            + "});";
+
+    /**
+     * One element as it was when the snapshot was taken.
+     */
+    public static final class Node {
+        private final WebElement element;
+        private final String tag;
+        private final String text;
+        private final Map<String, String> attributes;
+        private final boolean visible;
+        private final Rectangle rect;
+
+        Node(WebElement element, String tag, String text, Map<String, String> attributes, boolean visible, Rectangle rect) {
+            this.element = element;
+            this.tag = tag;
+            this.text = text;
+            this.attributes = attributes;
+            this.visible = visible;
+            this.rect = rect;
+        }
+
+        /** The live element, for acting on a node picked from the snapshot. */
+        public WebElement element() {
+            return element;
+        }
+
+        public String tag() {
+            return tag;
+        }
+
+        /** Rendered text, empty for hidden elements (as with getText()). */
+        public String text() {
+            return text;
+        }
+
+        public String attribute(String name) {
+            return attributes.get(name);
+        }
+
+        public Map<String, String> attributes() {
+            return Collections.unmodifiableMap(attributes);
+        }
+
+        public boolean visible() {
+            return visible;
+        }
+
+        /** Position relative to the document and size, in CSS pixels. */
+        public Rectangle rect() {
+            return rect;
+        }
+
+        @Override
+        public String toString() {
+            return "<" + tag + "> '" + text.trim() + "' " + attributes;
+        }
+    }
+
+    private DomSnapshot() {
+    }
+
+    /**
+     * Snapshot every element matching {@code by}.
+     *
+     * @param attributes attributes to read, resolved like getAttribute(); all declared
+     *                   attributes when none are given
+     */
+    public static List<Node> of(WebDriver driver, By by, String... attributes) {
+        Object[] spec = SelectorChain.toSpec(by);
+        // locators the script cannot evaluate cost one extra findElements call
+        List<WebElement> given = spec == null ? driver.findElements(by) : Collections.emptyList();
+        Object result = ((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT,
+            spec == null ? null : Arrays.asList(spec), given, Arrays.asList(attributes));
+        return toNodes(result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Node> toNodes(Object result) {
+        List<Node> nodes = new ArrayList<>();
+        if (!(result instanceof List)) {
+            return nodes;
+        }
+        for (Object item : (List<Object>) result) {
+            Map<String, Object> raw = (Map<String, Object>) item;
+            Map<String, String> attributes = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> e : ((Map<String, Object>) raw.get("attributes")).entrySet()) {
+                attributes.put(e.getKey(), e.getValue() == null ? null : String.valueOf(e.getValue()));
+            }
+            List<Number> r = (List<Number>) raw.get("rect");
+            nodes.add(new Node(
+                (WebElement) raw.get("element"),
+                (String) raw.get("tag"),
+                (String) raw.get("text"),
+                attributes,
+                Boolean.TRUE.equals(raw.get("visible")),
+                new Rectangle(r.get(0).intValue(), r.get(1).intValue(), r.get(3).intValue(), r.get(2).intValue())));
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.support;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+/**
+ * The driver and wait a thread is working with.
+ *
+ * Each test (or worker) binds its own context to the thread running it, so page objects and
+ * helpers never reach a session owned by another thread when tests run in parallel.
+ */
+public final class DriverContext {
+    private static final ThreadLocal<DriverContext> CURRENT = new ThreadLocal<>();
+
+    private final WebDriver driver;
+    private final WebDriverWait wait;
+
+    public DriverContext(WebDriver driver, WebDriverWait wait) {
+        this.driver = driver;
+        this.wait = wait;
+    }
+
+    public WebDriver driver() {
+        return driver;
+    }
+
+    public WebDriverWait waiter() {
+        return wait;
+    }
+
+    /**
+     * Bind a context to the calling thread, replacing whatever was bound before.
+     */
+    public static void bind(DriverContext context) {
+        CURRENT.set(context);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * The context bound to the calling thread.
+     *
+     * @throws IllegalStateException when the thread has no context, e.g. a page object built
+     *                               outside of a test or worker
+     */
+    public static DriverContext current() {
+        DriverContext context = CURRENT.get();
+        if (context == null) {
+            throw new IllegalStateException("No driver bound to thread " + Thread.currentThread().getName());
+        }
+        return context;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.support;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+
+/**
+ * Builds Chrome sessions with the launch options every test in the suite expects. Sessions
+ * are decorated for {@link StepTimer}.
+ */
+public final class DriverFactory {
+
+    private DriverFactory() {
+    }
+
+    public static WebDriver createChrome() {
+        return createChrome(BrowserProfile.STANDARD);
+    }
+
+    public static WebDriver createChrome(BrowserProfile profile) {
+        ChromeDriverResolver.resolve();
+        WebDriver driver = new ChromeDriver(profile.options());
+        try {
+            profile.configure(driver);
+        } catch (RuntimeException e) {
+            driver.quit();
+            throw e;
+        }
+        return StepTimer.instrument(driver);
+    }
+}
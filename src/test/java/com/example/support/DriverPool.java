@@ -0,0 +1,264 @@
+package com.example.support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Pool of browser sessions shared by every test in the JVM.
+ *
+ * A session is leased for one test and reset when it is released (extra windows closed,
+ * storage and cookies cleared, blank page loaded), so the next lease starts from a clean
+ * browser without paying Chrome's cold start again. Sessions are only quit when they fail
+ * a health check or when the JVM shuts down, at which point the pool prints how many
+ * sessions it created and reused. Every session gets a {@link NetworkTracker} and starts
+ * observing {@link WebVitals} when it is created.
+ */
+public final class DriverPool {
+    private static final Map<BrowserProfile, DriverPool> SHARED = new EnumMap<>(BrowserProfile.class);
+    /** what Storage.clearDataForOrigin removes on reset; cookies are cleared for all domains separately */
+    private static final String CLEARED_STORAGE = "local_storage,indexeddb,cache_storage,service_workers,websql,file_systems";
+
+    private final String name;
+    private final Supplier<WebDriver> factory;
+    private final Deque<WebDriver> idle = new ArrayDeque<>();
+    private final Set<WebDriver> open = new HashSet<>();
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger reused = new AtomicInteger();
+    private final AtomicInteger discarded = new AtomicInteger();
+    private final AtomicLong startupNanos = new AtomicLong();
+
+    public DriverPool(Supplier<WebDriver> factory) {
+        this("driver-pool", factory);
+    }
+
+    /**
+     * @param name used in log lines and for target/&lt;name&gt;-stats.properties
+     */
+    public DriverPool(String name, Supplier<WebDriver> factory) {
+        this.name = name;
+        this.factory = factory;
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, name + "-shutdown"));
+    }
+
+    /**
+     * The pool of {@link BrowserProfile#STANDARD} sessions.
+     */
+    public static DriverPool shared() {
+        return shared(BrowserProfile.STANDARD);
+    }
+
+    /**
+     * The pool of sessions launched with the given profile.
+     */
+    public static DriverPool shared(BrowserProfile profile) {
+        synchronized (SHARED) {
+            return SHARED.computeIfAbsent(profile, p -> p == BrowserProfile.STANDARD
+                ? new DriverPool(() -> DriverFactory.createChrome(p))
+                : new DriverPool("driver-pool-" + p.name().toLowerCase(), () -> DriverFactory.createChrome(p)));
+        }
+    }
+
+    /**
+     * The shared pool a session was leased from, or the standard pool for sessions it does not know.
+     */
+    public static DriverPool owning(WebDriver driver) {
+        synchronized (SHARED) {
+            for (DriverPool pool : SHARED.values()) {
+                synchronized (pool) {
+                    if (pool.open.contains(driver)) {
+                        return pool;
+                    }
+                }
+            }
+        }
+        return shared();
+    }
+
+    /**
+     * Hand out an idle session if a healthy one is available, otherwise start a new one.
+     */
+    public WebDriver lease() {
+        while (true) {
+            WebDriver candidate;
+            synchronized (this) {
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) {
+                break;
+            }
+            if (isHealthy(candidate)) {
+                reused.incrementAndGet();
+                DomJournal.attach(candidate);
+                return candidate;
+            }
+            discard(candidate);
+        }
+
+        long start = System.nanoTime();
+        WebDriver driver = factory.get();
+        startupNanos.addAndGet(System.nanoTime() - start);
+        created.incrementAndGet();
+        NetworkTracker.attach(driver);
+        WebVitals.attach(driver);
+        UiIdle.attach(driver);
+        DomJournal.attach(driver);
+        synchronized (this) {
+            open.add(driver);
+        }
+        return driver;
+    }
+
+    /**
+     * Return a session to the pool. Sessions that cannot be reset are quit instead.
+     */
+    public void release(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        if (reset(driver)) {
+            synchronized (this) {
+                idle.addFirst(driver);
+            }
+        } else {
+            discard(driver);
+        }
+    }
+
+    /**
+     * Quit a session and forget about it, e.g. after a test left the browser in a broken state.
+     */
+    public void discard(WebDriver driver) {
+        synchronized (this) {
+            open.remove(driver);
+            idle.remove(driver);
+        }
+        discarded.incrementAndGet();
+        NetworkTracker.detach(driver);
+        Cdp.close(driver);
+        try {
+            driver.quit();
+        } catch (Exception ignored) {
+        }
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            System.out.println("[" + name + "] Discarding unhealthy session: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean reset(WebDriver driver) {
+        try {
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            String keep = handles.get(0);
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                clearStorage(driver);
+                if (!handle.equals(keep)) {
+                    driver.close();
+                }
+            }
+            driver.switchTo().window(keep);
+            NetworkTracker tracker = NetworkTracker.of(driver);
+            if (driver instanceof HasCdp) {
+                // deleteAllCookies() only covers the current domain; CDP clears every domain
+                ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Map.of());
+                if (tracker != null) {
+                    clearOrigins((HasCdp) driver, tracker.visitedOrigins());
+                }
+            }
+            driver.manage().deleteAllCookies();
+            driver.navigate().to("about:blank");
+            if (tracker != null) {
+                tracker.reset();
+            }
+            return true;
+        } catch (Exception e) {
+            System.out.println("[" + name + "] Failed to reset session: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void clearStorage(WebDriver driver) {
+        // before the storage goes: leaving the page would otherwise store the journal again
+        DomJournal.stop(driver);
+        try {
+            ((JavascriptExecutor) driver).executeScript(
+                "try { window.localStorage.clear(); } catch (e) {}"
+                    + "try { window.sessionStorage.clear(); } catch (e) {}");
+        } catch (Exception ignored) {
+        }
+    }
+
+    /**
+     * The storage the script in {@link #clearStorage} cannot reach: every origin the test
+     * visited, not just the ones its windows show at the end. sessionStorage is not covered;
+     * CDP has no per-origin clear for it, so origins the kept window navigated away from
+     * keep theirs.
+     */
+    private void clearOrigins(HasCdp driver, Set<String> origins) {
+        for (String origin : origins) {
+            try {
+                driver.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", CLEARED_STORAGE));
+            } catch (Exception e) {
+                System.out.println("[" + name + "] Failed to clear storage of " + origin + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void shutdown() {
+        List<WebDriver> toQuit;
+        synchronized (this) {
+            toQuit = new ArrayList<>(open);
+            open.clear();
+            idle.clear();
+        }
+        for (WebDriver driver : toQuit) {
+            try {
+                driver.quit();
+            } catch (Exception ignored) {
+            }
+        }
+        if (created.get() == 0) {
+            return;
+        }
+
+        long avgStartupMs = startupNanos.get() / 1_000_000L / created.get();
+        String summary = "sessions.created=" + created.get() + "\n"
+            + "sessions.reused=" + reused.get() + "\n"
+            + "sessions.discarded=" + discarded.get() + "\n"
+            + "startup.avgMs=" + avgStartupMs + "\n"
+            + "startup.savedMs=" + avgStartupMs * reused.get() + "\n";
+        System.out.println("[" + name + "] created=" + created.get() + " reused=" + reused.get()
+            + " discarded=" + discarded.get() + " avg startup=" + avgStartupMs + "ms"
+            + " estimated startup saved=" + avgStartupMs * reused.get() + "ms");
+        try {
+            Path out = Paths.get("target", name + "-stats.properties");
+            Files.createDirectories(out.getParent());
+            Files.write(out, summary.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException ignored) {
+        }
+    }
+}
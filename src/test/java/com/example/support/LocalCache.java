@@ -0,0 +1,65 @@
+package com.example.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Per-machine cache directory for state the harness keeps between runs.
+ *
+ * Defaults to ~/.cache/taxmind-test so it survives "mvn clean"; override with
+ * -Dtaxmind.cache.dir=... (e.g. to point CI agents at a persistent volume).
+ */
+public final class LocalCache {
+
+    private LocalCache() {
+    }
+
+    public static Path dir() {
+        String configured = System.getProperty("taxmind.cache.dir");
+        if (configured != null && !configured.isEmpty()) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("user.home"), ".cache", "taxmind-test");
+    }
+
+    public static Path file(String name) {
+        return dir().resolve(name);
+    }
+
+    /**
+     * Read a properties file from the cache; missing or unreadable files yield an empty set.
+     */
+    public static Properties readProperties(Path file) {
+        Properties props = new Properties();
+        if (Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                props.load(in);
+            } catch (IOException e) {
+                System.out.println("[cache] Ignoring unreadable " + file + ": " + e.getMessage());
+            }
+        }
+        return props;
+    }
+
+    /**
+     * Write a properties file atomically so concurrent JVMs never see a half-written file.
+     */
+    public static void writeProperties(Path file, Properties props, String comment) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                props.store(out, comment);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("[cache] Failed to write " + file + ": " + e.getMessage());
+        }
+    }
+}
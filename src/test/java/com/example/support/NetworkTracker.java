@@ -0,0 +1,215 @@
+package com.example.support;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Counts the requests a browser has in flight, from CDP Network events.
+ *
+ * The pool attaches one tracker to every session it creates. Page objects call
+ * {@link #awaitNetworkIdle(WebDriver, Duration, Duration)} after an action that makes the app
+ * fetch data, and continue as soon as the backend calls have finished. Long-lived streams
+ * (WebSocket, EventSource) are not counted, and the count restarts whenever the top-level
+ * document navigates. Transfer sizes and blocked requests are reported to {@link ResourceUsage}.
+ * The origins of the documents the session loaded, frames included, are kept until the next
+ * {@link #reset()}, so the pool can clear their storage.
+ */
+public final class NetworkTracker {
+    public static final Duration DEFAULT_QUIET = Duration.ofMillis(300);
+    public static final Duration DEFAULT_BUDGET = Duration.ofSeconds(15);
+
+    private static final Map<WebDriver, NetworkTracker> TRACKERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /** requestId -> CDP resource type */
+    private final Map<String, String> inFlight = new HashMap<>();
+    /** scheme://host[:port] of every document loaded since the last reset */
+    private final Set<String> origins = new LinkedHashSet<>();
+    private String mainFrameId;
+    private long lastActivity = System.nanoTime();
+
+    private NetworkTracker() {
+    }
+
+    /**
+     * Start tracking the driver's browser. Does nothing when the browser has no DevTools.
+     */
+    @SuppressWarnings("unchecked")
+    public static void attach(WebDriver driver) {
+        DevTools devTools = Cdp.session(driver);
+        if (devTools == null) {
+            return;
+        }
+        NetworkTracker tracker = new NetworkTracker();
+        try {
+            Map<String, Object> tree = devTools.send(new Command<>("Page.getFrameTree", Map.of(), Json.MAP_TYPE));
+            tracker.mainFrameId = (String) ((Map<String, Object>) ((Map<String, Object>) tree.get("frameTree")).get("frame")).get("id");
+            devTools.addListener(event("Network.requestWillBeSent"), tracker::onRequest);
+            devTools.addListener(event("Network.loadingFinished"), tracker::onFinished);
+            devTools.addListener(event("Network.loadingFailed"), tracker::onFailed);
+            devTools.send(new Command<>("Network.enable", Map.of()));
+        } catch (Exception e) {
+            System.out.println("[network-tracker] Not tracking this session: " + e.getMessage());
+            return;
+        }
+        TRACKERS.put(Cdp.unwrap(driver), tracker);
+    }
+
+    /**
+     * The tracker attached to the driver's browser, or null.
+     */
+    public static NetworkTracker of(WebDriver driver) {
+        return TRACKERS.get(Cdp.unwrap(driver));
+    }
+
+    /**
+     * Forget the driver's tracker, e.g. before the browser is quit.
+     */
+    public static void detach(WebDriver driver) {
+        TRACKERS.remove(Cdp.unwrap(driver));
+    }
+
+    /**
+     * Wait for the driver's network to go quiet; falls back to {@link UiIdle} when the
+     * session is not tracked.
+     */
+    public static boolean awaitNetworkIdle(WebDriver driver, Duration quietPeriod, Duration budget) {
+        NetworkTracker tracker = of(driver);
+        if (tracker == null) {
+            return UiIdle.waitForUiIdle(driver, budget);
+        }
+        long start = System.nanoTime();
+        try {
+            return tracker.awaitNetworkIdle(quietPeriod, budget);
+        } finally {
+            StepTimer.waited(start);
+        }
+    }
+
+    public static boolean awaitNetworkIdle(WebDriver driver) {
+        return awaitNetworkIdle(driver, DEFAULT_QUIET, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Block until no request has been in flight for {@code quietPeriod}, or the budget runs out.
+     *
+     * @return true if the network went quiet within the budget
+     */
+    public synchronized boolean awaitNetworkIdle(Duration quietPeriod, Duration budget) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        while (true) {
+            long now = System.nanoTime();
+            long quietUntil = lastActivity + quietPeriod.toNanos();
+            if (inFlight.isEmpty() && now >= quietUntil) {
+                return true;
+            }
+            if (now >= deadline) {
+                System.out.println("[network-tracker] " + inFlight.size() + " request(s) still in flight after "
+                    + budget.toMillis() + "ms");
+                return false;
+            }
+            long waitNanos = Math.min(deadline, inFlight.isEmpty() ? quietUntil : deadline) - now;
+            try {
+                wait(Math.max(1L, waitNanos / 1_000_000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    public synchronized int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Origins of the documents (pages and frames) loaded since the last {@link #reset()}.
+     */
+    public synchronized Set<String> visitedOrigins() {
+        return new LinkedHashSet<>(origins);
+    }
+
+    /**
+     * Forget everything in flight and every visited origin, e.g. when a pooled session is
+     * handed to the next test.
+     */
+    public synchronized void reset() {
+        inFlight.clear();
+        origins.clear();
+        lastActivity = System.nanoTime();
+        notifyAll();
+    }
+
+    private synchronized void onRequest(Map<String, Object> params) {
+        String type = String.valueOf(params.get("type"));
+        if ("WebSocket".equals(type) || "EventSource".equals(type)) {
+            return;
+        }
+        String requestId = (String) params.get("requestId");
+        if ("Document".equals(type) && params.get("request") instanceof Map) {
+            String origin = origin(String.valueOf(((Map<?, ?>) params.get("request")).get("url")));
+            if (origin != null) {
+                origins.add(origin);
+            }
+        }
+        // a new top-level document abandons whatever the previous page had in flight
+        if ("Document".equals(type) && requestId.equals(params.get("loaderId")) && mainFrameId != null
+            && mainFrameId.equals(params.get("frameId"))) {
+            inFlight.clear();
+        }
+        // redirects reuse the request id, so they stay counted once
+        inFlight.put(requestId, type);
+        lastActivity = System.nanoTime();
+        notifyAll();
+    }
+
+    private synchronized void onFinished(Map<String, Object> params) {
+        String type = done(params);
+        if (type != null && params.get("encodedDataLength") instanceof Number) {
+            ResourceUsage.shared().loaded(type, ((Number) params.get("encodedDataLength")).longValue());
+        }
+    }
+
+    private synchronized void onFailed(Map<String, Object> params) {
+        done(params);
+        if (params.get("blockedReason") != null) {
+            ResourceUsage.shared().blocked(String.valueOf(params.get("type")));
+        }
+    }
+
+    private String done(Map<String, Object> params) {
+        String type = inFlight.remove((String) params.get("requestId"));
+        if (type != null) {
+            lastActivity = System.nanoTime();
+            notifyAll();
+        }
+        return type;
+    }
+
+    private static String origin(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (!"http".equals(uri.getScheme()) && !"https".equals(uri.getScheme())) {
+                return null;
+            }
+            return uri.getScheme() + "://" + uri.getRawAuthority();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds where a one-time code goes - one input, or a row of one-character boxes - in the page
+ * and in any of its iframes, and types the code into it.
+ *
+ * Each poll is one script that looks at every input of the main document and, through
+ * {@code window.frames}, of every same-origin iframe, and scores them for both layouts at
+ * once: a group of at least code-length single-character boxes under one container wins,
+ * otherwise the input with the strongest OTP hints (autocomplete="one-time-code", an
+ * otp/code/verification name, a maxlength of the code's length). A tel or numeric input mode
+ * only adds to those signals: on its own it would also match a phone-number field, e.g. the
+ * signup form's, before the OTP step has rendered. {@link #orBareNumeric()} lets a page whose
+ * OTP field may carry no other hint fall back to a lone tel/numeric input once the budget has
+ * run out. Frames
+ * the script cannot read (cross-origin) are switched into and searched the same way. Polls
+ * repeat until the budget runs out (-Dtaxmind.otp.budget seconds, default 15), so a page
+ * without an OTP field fails after the budget rather than after a full wait per selector
+ * and frame.
+ *
+ * <pre>
+ * OtpLocator.forLength(6).enter(driver, "123456");
+ * </pre>
+ */
+public final class OtpLocator {
+    private static final long POLL_INTERVAL_MS = 150;
+
+    /** score an input needs: one real OTP signal, or just tel/numeric for the fallback */
+    private static final int MIN_SCORE = 2;
+    private static final int BARE_SCORE = 1;
+
+    /**
+     * Arguments: code length, whether to descend into frames, minimum score. Returns the layout found
+     * (inputs only when it is in this document, otherwise the frame path to it), how many
+     * frames were looked at and the paths of frames that could not be read.
+     */
+    private static final String DETECT_SCRIPT =
+        "var length = arguments[0], descend = arguments[1], minScore = arguments[2];"
+            + "var TEXTUAL = { '': 1, text: 1, tel: 1, number: 1, password: 1 };"
+            + "var HINT = /otp|one.?time|passcode|verif|(^|[^a-z])code/i;"
+            + "var visible = function (el) {"
+            + "  if (!el.isConnected || el.getClientRects().length === 0) { return false; }"
+            + "  var s = el.ownerDocument.defaultView.getComputedStyle(el);"
+            + "  return s.visibility !== 'hidden' && s.display !== 'none' && parseFloat(s.opacity) !== 0;"
+            + "};"
+            + "var detect = function (doc) {"
+            + "  var inputs = Array.prototype.filter.call(doc.querySelectorAll('input'), function (el) {"
+            + "    return TEXTUAL[(el.getAttribute('type') || '').toLowerCase()] && !el.disabled && !el.readOnly && visible(el);"
+            + "  });"
+            + "  var boxes = inputs.filter(function (el) {"
+            + "    return el.maxLength === 1 || /otp-input|digit/i.test(el.className) || el.getAttribute('data-qa') === 'otp-input';"
+            + "  });"
+            + "  var groups = new Map(), split = null;"
+            + "  boxes.forEach(function (el) {"
+            + "    var parent = el.parentElement;"
+            + "    var row = parent && parent.children.length === 1 && parent.parentElement ? parent.parentElement : parent;"
+            + "    if (!groups.has(row)) { groups.set(row, []); }"
+            + "    groups.get(row).push(el);"
+            + "  });"
+            + "  groups.forEach(function (group) { if (!split && group.length >= length) { split = group; } });"
+            + "  if (!split && boxes.length >= length) { split = boxes; }"
+            + "  if (split) { return { kind: 'SPLIT', inputs: split.slice(0, length) }; }"
+            + "  var best = null, bestScore = minScore - 1;"
+            + "  inputs.forEach(function (el) {"
+            + "    var hints = [el.name, el.id, el.className, el.placeholder, el.getAttribute('aria-label'), el.getAttribute('data-qa')].join(' ');"
+            + "    var score = (el.autocomplete === 'one-time-code' ? 4 : 0) + (HINT.test(hints) ? 3 : 0)"
+            + "      + (el.maxLength === length ? 2 : 0) + (el.inputMode === 'numeric' || el.type === 'tel' ? 1 : 0);"
+            + "    if (score > bestScore) { best = el; bestScore = score; }"
+            + "  });"
+            + "  return best ? { kind: 'SINGLE', inputs: [best] } : null;"
+            + "};"
+            + "var result = { kind: null, path: [], inputs: null, frames: 0, blocked: [] };"
+            + "var search = function (win, path) {"
+            + "  var doc;"
+            + "  try { doc = win.document; doc.documentElement; } catch (e) { result.blocked.push(path); return false; }"
+            + "  var found = doc && detect(doc);"
+            + "  if (found) {"
+            + "    result.kind = found.kind; result.path = path;"
+            + "    if (path.length === 0) { result.inputs = found.inputs; }"
+            + "    return true;"
+            + "  }"
+            + "  if (!descend) { return false; }"
+            + "  for (var i = 0; i < win.frames.length; i++) {"
+            + "    result.frames++;"
+            + "    if (search(win.frames[i], path.concat([i]))) { return true; }"
+            + "  }"
+            + "  return false;"
+            + "};"
+            + "search(window, []);"
+            + "return result;";
+
+    public enum Kind { SINGLE, SPLIT }
+
+    private final int length;
+    private Duration budget = defaultBudget();
+    private boolean bareFallback;
+
+    private OtpLocator(int length) {
+        this.length = length;
+    }
+
+    public static OtpLocator forLength(int length) {
+        return new OtpLocator(length);
+    }
+
+    public static Duration defaultBudget() {
+        return Duration.ofSeconds(Long.getLong("taxmind.otp.budget", 15L));
+    }
+
+    /**
+     * Total time allowed for the search, over all polls and frames.
+     */
+    public OtpLocator within(Duration budget) {
+        this.budget = budget;
+        return this;
+    }
+
+    /**
+     * After the budget has run out, accept a lone tel or numeric input without any other OTP
+     * hint. Only for pages that have no other such field, like the OTP step after login.
+     */
+    public OtpLocator orBareNumeric() {
+        this.bareFallback = true;
+        return this;
+    }
+
+    /**
+     * Where the code goes: the layout, the frame holding it (as {@code switchTo().frame(int)}
+     * indices from the top document; empty for the page itself) and the inputs in order.
+     */
+    public static final class Match {
+        private final Kind kind;
+        private final List<Integer> frame;
+        private final List<WebElement> inputs;
+
+        Match(Kind kind, List<Integer> frame, List<WebElement> inputs) {
+            this.kind = kind;
+            this.frame = Collections.unmodifiableList(frame);
+            this.inputs = Collections.unmodifiableList(inputs);
+        }
+
+        public Kind kind() {
+            return kind;
+        }
+
+        public List<Integer> frame() {
+            return frame;
+        }
+
+        public List<WebElement> inputs() {
+            return inputs;
+        }
+
+        @Override
+        public String toString() {
+            return kind + " (" + inputs.size() + " input(s)" + (frame.isEmpty() ? "" : " in frame " + frame) + ")";
+        }
+    }
+
+    /**
+     * Find the code field and type the code into it. The driver is back on the top document
+     * afterwards.
+     *
+     * @throws RuntimeException when no OTP field shows up within the budget
+     */
+    public Match enter(WebDriver driver, String otp) {
+        Match match = enterIfPresent(driver, otp);
+        if (match == null) {
+            throw new RuntimeException("OTP input not found within " + budget.toMillis() + "ms in the page or its frames");
+        }
+        return match;
+    }
+
+    /**
+     * Same as {@link #enter} for flows where the OTP step is optional.
+     *
+     * @return where the code went, or null when no OTP field showed up within the budget
+     */
+    public Match enterIfPresent(WebDriver driver, String otp) {
+        Match match = find(driver);
+        if (match == null) {
+            return null;
+        }
+        try {
+            if (match.kind() == Kind.SPLIT) {
+                for (int i = 0; i < otp.length() && i < match.inputs().size(); i++) {
+                    WebElement box = match.inputs().get(i);
+                    box.clear();
+                    box.sendKeys(String.valueOf(otp.charAt(i)));
+                }
+            } else {
+                WebElement input = match.inputs().get(0);
+                input.clear();
+                input.sendKeys(otp);
+            }
+        } finally {
+            driver.switchTo().defaultContent();
+        }
+        return match;
+    }
+
+    /**
+     * Poll the page and its frames until a code field shows up or the budget runs out. When one
+     * is found the driver is left switched into its frame, so the inputs can be used.
+     *
+     * @return the match, or null (with the driver on the top document) when nothing was found
+     */
+    public Match find(WebDriver driver) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        while (true) {
+            int[] frames = {0};
+            Match match = probe(driver, new ArrayList<>(), frames, MIN_SCORE);
+            if (match != null) {
+                return match;
+            }
+            driver.switchTo().defaultContent();
+            if (System.nanoTime() >= deadline) {
+                if (bareFallback) {
+                    match = probe(driver, new ArrayList<>(), new int[]{0}, BARE_SCORE);
+                    if (match != null) {
+                        System.out.println("[otp] no hinted OTP input within " + budget.toMillis()
+                            + "ms, using a bare tel/numeric input");
+                        return match;
+                    }
+                    driver.switchTo().defaultContent();
+                }
+                System.out.println("[otp] no OTP input within " + budget.toMillis() + "ms in the page or its "
+                    + frames[0] + " frame(s)");
+                return null;
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Search the document at {@code path} and the frames below it once.
+     */
+    private Match probe(WebDriver driver, List<Integer> path, int[] frames, int minScore) {
+        Map<?, ?> result = detect(driver, path, true, minScore);
+        if (result == null) {
+            return null;
+        }
+        frames[0] += ((Number) result.get("frames")).intValue();
+        if (result.get("kind") != null) {
+            Kind kind = Kind.valueOf((String) result.get("kind"));
+            List<Integer> at = concat(path, (List<?>) result.get("path"));
+            Object inputs = result.get("inputs");
+            if (at.size() > path.size()) {
+                // elements of another document are only usable from inside its frame
+                Map<?, ?> inFrame = detect(driver, at, false, minScore);
+                inputs = inFrame == null ? null : inFrame.get("inputs");
+            }
+            List<WebElement> elements = new ArrayList<>();
+            if (inputs instanceof List) {
+                for (Object input : (List<?>) inputs) {
+                    if (input instanceof WebElement) {
+                        elements.add((WebElement) input);
+                    }
+                }
+            }
+            if (!elements.isEmpty()) {
+                return new Match(kind, at, elements);
+            }
+        }
+        for (Object blocked : (List<?>) result.get("blocked")) {
+            // cross-origin frames are searched from the inside
+            Match match = probe(driver, concat(path, (List<?>) blocked), frames, minScore);
+            if (match != null) {
+                return match;
+            }
+        }
+        return null;
+    }
+
+    private Map<?, ?> detect(WebDriver driver, List<Integer> path, boolean descend, int minScore) {
+        try {
+            driver.switchTo().defaultContent();
+            for (int index : path) {
+                driver.switchTo().frame(index);
+            }
+            Object result = ((JavascriptExecutor) driver).executeScript(DETECT_SCRIPT, length, descend, minScore);
+            return result instanceof Map ? (Map<?, ?>) result : null;
+        } catch (Exception e) {
+            // frame gone or page navigating; treat as no match on this poll
+            return null;
+        }
+    }
+
+    private static List<Integer> concat(List<Integer> path, List<?> more) {
+        List<Integer> joined = new ArrayList<>(path);
+        for (Object index : more) {
+            joined.add(((Number) index).intValue());
+        }
+        return joined;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads the browser's Navigation Timing and Resource Timing for the page that is showing and
+ * adds them to the running test's {@link StepTimer} report, keyed by URL.
+ *
+ * The first collection in a document reports the navigation entry (TTFB, DOM content loaded,
+ * load, transfer size) plus the resources fetched so far. Later collections in the same
+ * document are client-side route changes: they have no navigation entry of their own and
+ * report the resources fetched since the previous collection, with "soft" set. When the
+ * session observes {@link WebVitals}, they are taken under "vitals".
+ *
+ * jsBytes sums the scripts' encoded (compressed) body sizes, falling back to the transfer
+ * size. transferSize alone is 0 for cache hits, which pooled sessions with a warm cache would
+ * make look free. Cross-origin scripts served without Timing-Allow-Origin report no sizes at
+ * all; they are not measured and only counted, as jsUnmeasured.
+ */
+public final class PageTiming {
+    private static final String COLLECT_SCRIPT =
+        "var p = window.performance; if (!p || !p.getEntriesByType) { return null; }"
+            + "var r = function (v) { return Math.round(v || 0); };"
+            + "var soft = typeof window.__tmTimingMark === 'number';"
+            + "var since = soft ? window.__tmTimingMark : 0;"
+            + "window.__tmTimingMark = p.now();"
+            + "var out = { url: location.href, soft: soft, sinceMs: r(since) };"
+            + "var nav = p.getEntriesByType('navigation')[0];"
+            + "if (nav && !soft) {"
+            + "  out.navigation = { type: nav.type, redirectMs: r(nav.redirectEnd - nav.redirectStart),"
+            + "    dnsMs: r(nav.domainLookupEnd - nav.domainLookupStart), connectMs: r(nav.connectEnd - nav.connectStart),"
+            + "    ttfbMs: r(nav.responseStart), responseMs: r(nav.responseEnd - nav.responseStart),"
+            + "    domInteractiveMs: r(nav.domInteractive), domContentLoadedMs: r(nav.domContentLoadedEventEnd),"
+            + "    loadMs: r(nav.loadEventEnd), transferBytes: r(nav.transferSize), decodedBytes: r(nav.decodedBodySize) };"
+            + "}"
+            + "var byType = {}, total = { count: 0, transferBytes: 0, jsBytes: 0, jsUnmeasured: 0 }, slowest = [];"
+            + "p.getEntriesByType('resource').forEach(function (e) {"
+            + "  if (e.startTime < since) { return; }"
+            + "  var t = byType[e.initiatorType] || (byType[e.initiatorType] = { count: 0, transferBytes: 0, durationMs: 0 });"
+            + "  t.count++; t.transferBytes += r(e.transferSize); t.durationMs += r(e.duration);"
+            + "  total.count++; total.transferBytes += r(e.transferSize);"
+            + "  if (e.initiatorType === 'script' || /\\.m?js(\\?|$)/.test(e.name)) {"
+            + "    var size = r(e.encodedBodySize || e.transferSize);"
+            + "    if (size > 0) { total.jsBytes += size; } else { total.jsUnmeasured++; }"
+            + "  }"
+            + "  slowest.push({ name: e.name, type: e.initiatorType, durationMs: r(e.duration), transferBytes: r(e.transferSize) });"
+            + "});"
+            + "slowest.sort(function (a, b) { return b.durationMs - a.durationMs; });"
+            + "total.byType = byType; total.slowest = slowest.slice(0, 5);"
+            + "out.resources = total;"
+            + "out.vitals = window.__tmVitalsTake ? window.__tmVitalsTake() : null;"
+            + "return out;";
+
+    private PageTiming() {
+    }
+
+    /**
+     * Collect timings for the current page and attach them to the test report.
+     *
+     * @param label what brought the page up, e.g. "MenuPage.clickMenuItem"
+     * @return the timings, or null when the page could not be read
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> collect(WebDriver driver, String label) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            return null;
+        }
+        try {
+            Object raw = ((JavascriptExecutor) driver).executeScript(COLLECT_SCRIPT);
+            if (!(raw instanceof Map)) {
+                return null;
+            }
+            Map<String, Object> timing = new LinkedHashMap<>();
+            timing.put("label", label);
+            timing.putAll((Map<String, Object>) raw);
+            StepTimer.pageTiming((String) timing.get("url"), timing);
+            return timing;
+        } catch (Exception e) {
+            System.out.println("[page-timing] Could not read timings after " + label + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
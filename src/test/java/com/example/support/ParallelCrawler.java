@@ -0,0 +1,87 @@
+package com.example.support;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+/**
+ * Visits a set of URLs from several browser sessions at once, all logged in as the user of
+ * the seed session.
+ *
+ * The seed session's cookies and storage are captured in memory once and restored into
+ * extra sessions leased from the seed's {@link DriverPool}. The seed itself works through
+ * the same queue on the calling thread, so {@code workers = 1} is a plain sequential crawl.
+ * Extra workers run as {@link SessionOrchestrator} workflows, each on a virtual thread with
+ * its own {@link DriverContext} bound, so page objects built with their no-argument
+ * constructor talk to that worker's browser.
+ */
+public final class ParallelCrawler {
+    private ParallelCrawler() {
+    }
+
+    /**
+     * Worker count from -Dtaxmind.menu.crawl.workers (default 1, i.e. no extra sessions).
+     */
+    public static int defaultWorkers() {
+        return Math.max(1, Integer.getInteger("taxmind.menu.crawl.workers", 1));
+    }
+
+    /**
+     * Run {@code visit} for every target and collect the results.
+     *
+     * @param seed    authenticated session on the calling thread; it must be bound to the
+     *                thread's {@link DriverContext}
+     * @param targets key -> URL to visit
+     * @param workers sessions to use in total, including the seed
+     * @param visit   opens one URL in the current thread's browser and returns the value to
+     *                record; exceptions are recorded as "ERROR: message"
+     * @return key -> visit result, or {"ERROR: ...", ""} for failed visits
+     */
+    public static Map<String, String[]> crawl(WebDriver seed, Map<String, String> targets, int workers,
+                                              Function<String, String[]> visit) {
+        ConcurrentLinkedQueue<Map.Entry<String, String>> queue = new ConcurrentLinkedQueue<>(targets.entrySet());
+        Map<String, String[]> results = new ConcurrentHashMap<>();
+        int extra = Math.min(workers, targets.size()) - 1;
+        if (extra <= 0) {
+            drain(queue, results, visit);
+            return results;
+        }
+
+        AuthSnapshot login = AuthSnapshot.capture(seed, AuthSnapshot.defaultTtl());
+        long start = System.nanoTime();
+        // extra sessions use the seed's launch profile; a worker that cannot start leaves its
+        // share of the queue to the others
+        try (SessionOrchestrator crew = SessionOrchestrator.tolerant(DriverPool.owning(seed), login)) {
+            for (int i = 0; i < extra; i++) {
+                crew.fork("crawl-worker-" + (i + 1), session -> {
+                    drain(queue, results, visit);
+                    return null;
+                });
+            }
+            drain(queue, results, visit);
+            for (SessionOrchestrator.Task<?> worker : crew.join().tasks()) {
+                if (worker.state() == SessionOrchestrator.State.FAILED) {
+                    System.out.println("[crawler] Worker failed: " + worker.failure());
+                }
+            }
+        }
+        System.out.println("[crawler] " + results.size() + " target(s) with " + (extra + 1) + " sessions in "
+            + (System.nanoTime() - start) / 1_000_000L + "ms");
+        return results;
+    }
+
+    private static void drain(ConcurrentLinkedQueue<Map.Entry<String, String>> queue, Map<String, String[]> results,
+                              Function<String, String[]> visit) {
+        Map.Entry<String, String> target;
+        while ((target = queue.poll()) != null) {
+            try {
+                results.put(target.getKey(), visit.apply(target.getValue()));
+            } catch (Exception e) {
+                results.put(target.getKey(), new String[] { "ERROR: " + e.getMessage(), "" });
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Per-route performance budgets for the values {@link PageTiming} and {@link WebVitals}
+ * collect, read from perf-budgets.properties on the test classpath or the file named by
+ * -Dtaxmind.perf.budgets.
+ *
+ * Keys are {@code <route>.<metric>}, where the route is a URL path or "default"; the file
+ * lists the metrics. {@link #check(Map)} compares every visit of every page against the
+ * budget for its route and prints a per-route report; measurements the browser did not
+ * provide are skipped, not failed.
+ */
+public final class PerfBudgets {
+    public static final List<String> METRICS = List.of("lcpMs", "cls", "inpMs", "tbtMs", "longTasks", "jsKb");
+
+    private final Properties budgets;
+
+    private PerfBudgets(Properties budgets) {
+        this.budgets = budgets;
+    }
+
+    public static PerfBudgets load() {
+        Properties props = new Properties();
+        String file = System.getProperty("taxmind.perf.budgets");
+        try {
+            if (file != null && !file.isEmpty()) {
+                try (Reader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+                    props.load(reader);
+                }
+            } else {
+                try (InputStream in = PerfBudgets.class.getResourceAsStream("/perf-budgets.properties")) {
+                    if (in != null) {
+                        props.load(in);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read performance budgets: " + e.getMessage(), e);
+        }
+        return new PerfBudgets(props);
+    }
+
+    /**
+     * Whether budget breaches fail the test (-Dtaxmind.perf.enforce, default true) or are only
+     * reported.
+     */
+    public static boolean enforced() {
+        return !"false".equalsIgnoreCase(System.getProperty("taxmind.perf.enforce"));
+    }
+
+    /**
+     * The budget for a metric on a route, falling back to the default; null when unbudgeted.
+     */
+    public Double budget(String route, String metric) {
+        String value = budgets.getProperty(route + "." + metric, budgets.getProperty("default." + metric));
+        return value == null || value.trim().isEmpty() ? null : Double.valueOf(value.trim());
+    }
+
+    /**
+     * Check recorded page timings (url -> visits, see {@link StepTimer#pages()}) against the
+     * budgets and print a per-route report.
+     *
+     * @return one line per breach, empty when every page is within budget
+     */
+    public List<String> check(Map<String, List<Map<String, Object>>> pages) {
+        // route -> metric -> worst value seen
+        Map<String, Map<String, Double>> worst = new LinkedHashMap<>();
+        Map<String, String> worstLabel = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Map<String, Object>>> page : pages.entrySet()) {
+            String route = route(page.getKey());
+            for (Map<String, Object> visit : page.getValue()) {
+                Map<String, Double> values = measure(visit);
+                Map<String, Double> routeWorst = worst.computeIfAbsent(route, k -> new LinkedHashMap<>());
+                values.forEach((metric, value) -> {
+                    Double previous = routeWorst.get(metric);
+                    if (previous == null || value > previous) {
+                        routeWorst.put(metric, value);
+                        worstLabel.put(route + "." + metric, String.valueOf(visit.get("label")));
+                    }
+                });
+            }
+        }
+
+        List<String> breaches = new ArrayList<>();
+        StringBuilder report = new StringBuilder("[perf-budget] " + worst.size() + " route(s) measured");
+        for (Map.Entry<String, Map<String, Double>> entry : worst.entrySet()) {
+            String route = entry.getKey();
+            report.append("\n[perf-budget]   ").append(route).append(':');
+            for (String metric : METRICS) {
+                Double value = entry.getValue().get(metric);
+                if (value == null) {
+                    continue;
+                }
+                Double max = budget(route, metric);
+                boolean over = max != null && value > max;
+                report.append(' ').append(metric).append('=').append(format(value))
+                    .append(max == null ? "" : "/" + format(max)).append(over ? " OVER" : "");
+                if (over) {
+                    breaches.add(route + " " + metric + " " + format(value) + " > " + format(max)
+                        + " (after " + worstLabel.get(route + "." + metric) + ")");
+                }
+            }
+        }
+        if (worst.isEmpty()) {
+            report.append("; no page timings were recorded (is -Dtaxmind.steps=false?)");
+        }
+        System.out.println(report);
+        return breaches;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Double> measure(Map<String, Object> visit) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        Object vitals = visit.get("vitals");
+        if (vitals instanceof Map) {
+            for (String metric : List.of("lcpMs", "cls", "inpMs", "tbtMs", "longTasks")) {
+                Object value = ((Map<String, Object>) vitals).get(metric);
+                if (value instanceof Number) {
+                    values.put(metric, ((Number) value).doubleValue());
+                }
+            }
+        }
+        Object resources = visit.get("resources");
+        if (resources instanceof Map && ((Map<String, Object>) resources).get("jsBytes") instanceof Number) {
+            values.put("jsKb", ((Number) ((Map<String, Object>) resources).get("jsBytes")).doubleValue() / 1024.0);
+        }
+        return values;
+    }
+
+    /**
+     * The route of a page URL: its path without a trailing slash ("/" for the root).
+     */
+    static String route(String url) {
+        String path;
+        try {
+            path = URI.create(url).getPath();
+        } catch (Exception e) {
+            path = url;
+        }
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format(Locale.ROOT, "%.3f", value);
+    }
+}
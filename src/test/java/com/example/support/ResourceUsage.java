@@ -0,0 +1,118 @@
+package com.example.support;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Requests and bytes the browsers downloaded, and the requests that were blocked, across the
+ * whole JVM. Fed by {@link NetworkTracker}.
+ *
+ * Blocked requests never report a size, so the bytes they would have cost are estimated
+ * from the average transfer size of each resource type, learned across runs in
+ * resource-sizes.properties in {@link LocalCache#dir()}. At JVM shutdown the totals go to
+ * target/resource-usage.properties and, when anything was blocked, a one-line summary is
+ * printed.
+ */
+public final class ResourceUsage {
+    private static final Path SIZES = LocalCache.file("resource-sizes.properties");
+    private static final Path REPORT = Paths.get("target", "resource-usage.properties");
+
+    private static final ResourceUsage SHARED = new ResourceUsage();
+
+    private final Properties history;
+    private final Map<String, long[]> loaded = new TreeMap<>();
+    private final Map<String, Long> blocked = new TreeMap<>();
+
+    private ResourceUsage() {
+        this.history = LocalCache.readProperties(SIZES);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "resource-usage-flush"));
+    }
+
+    public static ResourceUsage shared() {
+        return SHARED;
+    }
+
+    /**
+     * @param type  CDP resource type, e.g. "Image" or "XHR"
+     * @param bytes bytes received over the network, including headers
+     */
+    public synchronized void loaded(String type, long bytes) {
+        long[] totals = loaded.computeIfAbsent(type, k -> new long[2]);
+        totals[0]++;
+        totals[1] += bytes;
+    }
+
+    public synchronized void blocked(String type) {
+        blocked.merge(type, 1L, Long::sum);
+    }
+
+    private long averageBytes(String type) {
+        long count = parse(history.getProperty(type + ".count"));
+        long bytes = parse(history.getProperty(type + ".bytes"));
+        long[] now = loaded.get(type);
+        if (now != null) {
+            count += now[0];
+            bytes += now[1];
+        }
+        return count == 0 ? -1 : bytes / count;
+    }
+
+    private static long parse(String value) {
+        try {
+            return value == null ? 0L : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private synchronized void flush() {
+        if (loaded.isEmpty() && blocked.isEmpty()) {
+            return;
+        }
+
+        Properties report = new Properties();
+        long loadedRequests = 0;
+        long loadedBytes = 0;
+        for (Map.Entry<String, long[]> e : loaded.entrySet()) {
+            loadedRequests += e.getValue()[0];
+            loadedBytes += e.getValue()[1];
+        }
+        long blockedRequests = 0;
+        long savedBytes = 0;
+        boolean estimateComplete = true;
+        StringBuilder byType = new StringBuilder();
+        for (Map.Entry<String, Long> e : blocked.entrySet()) {
+            blockedRequests += e.getValue();
+            report.setProperty("blocked." + e.getKey(), String.valueOf(e.getValue()));
+            byType.append(byType.length() == 0 ? "" : ", ").append(e.getKey()).append(' ').append(e.getValue());
+            long avg = averageBytes(e.getKey());
+            if (avg < 0) {
+                estimateComplete = false;
+            } else {
+                savedBytes += avg * e.getValue();
+            }
+        }
+        report.setProperty("loaded.requests", String.valueOf(loadedRequests));
+        report.setProperty("loaded.bytes", String.valueOf(loadedBytes));
+        report.setProperty("blocked.requests", String.valueOf(blockedRequests));
+        report.setProperty("blocked.estimatedBytes", String.valueOf(savedBytes));
+        LocalCache.writeProperties(REPORT, report, "Network usage of this run");
+
+        // merge this run's sizes into the history used for estimates
+        Properties merged = LocalCache.readProperties(SIZES);
+        for (Map.Entry<String, long[]> e : loaded.entrySet()) {
+            merged.setProperty(e.getKey() + ".count", String.valueOf(parse(merged.getProperty(e.getKey() + ".count")) + e.getValue()[0]));
+            merged.setProperty(e.getKey() + ".bytes", String.valueOf(parse(merged.getProperty(e.getKey() + ".bytes")) + e.getValue()[1]));
+        }
+        LocalCache.writeProperties(SIZES, merged, "Average transfer size per resource type");
+
+        if (blockedRequests > 0) {
+            System.out.println("[resource-usage] blocked " + blockedRequests + " request(s) (" + byType + "), about "
+                + savedBytes / 1024 + " KB not downloaded" + (estimateComplete ? "" : " (some types have no size history yet)")
+                + "; loaded " + loadedRequests + " request(s), " + loadedBytes / 1024 + " KB");
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.support;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An ordered list of fallback locators for one element, resolved in a single polling loop.
+ *
+ * Instead of giving every candidate its own full wait, each poll checks all candidates at
+ * once - in one script round trip for all of the standard By strategies - and returns the
+ * first candidate (in chain order) that has an element meeting the condition. The whole
+ * chain shares one time budget. Named chains record which candidate won in
+ * {@link SelectorStats} and try their historically best candidate first on later runs.
+ *
+ * <pre>
+ * SelectorChain.Match m = SelectorChain.of("login.username", By.cssSelector("input[type='email']"), By.name("username"))
+ *     .visible()
+ *     .find(driver);
+ * </pre>
+ */
+public final class SelectorChain {
+    public static final Duration DEFAULT_BUDGET = Duration.ofSeconds(15);
+    private static final long POLL_INTERVAL_MS = 150;
+
+    /** What an element has to satisfy to end the search. */
+    public enum Condition {
+        PRESENT, VISIBLE, CLICKABLE
+    }
+
+    /**
+     * Script fragment defining query(using, value) for the standard By strategies. Expects
+     * {@code root} (element or document to search below) and {@code doc} in scope.
+     */
+    static final String QUERY_FUNCTION =
+        "var toArray = function (list) { return Array.prototype.slice.call(list); };"
+            + "var query = function (using, value) {"
+            + "  switch (using) {"
+            + "    case 'css selector': return toArray(root.querySelectorAll(value));"
+            + "    case 'tag name': return toArray(root.getElementsByTagName(value));"
+            + "    case 'id': return toArray(root.querySelectorAll('[id=' + JSON.stringify(value) + ']'));"
+            + "    case 'name': return toArray(root.querySelectorAll('[name=' + JSON.stringify(value) + ']'));"
+            + "    case 'class name': return toArray(root.getElementsByClassName(value));"
+            + "    case 'xpath':"
+            + "      var r = doc.evaluate(value, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), out = [];"
+            + "      for (var i = 0; i < r.snapshotLength; i++) { if (r.snapshotItem(i).nodeType === 1) { out.push(r.snapshotItem(i)); } }"
+            + "      return out;"
+            + "    case 'link text': case 'partial link text':"
+            + "      return toArray(root.querySelectorAll('a')).filter(function (a) {"
+            + "        var t = (a.innerText || '').trim();"
+            + "        return using === 'link text' ? t === value : t.indexOf(value) >= 0; });"
+            + "  }"
+            + "  return [];"
+            + "};";
+
+    /** Script fragment defining visible(el), a close approximation of isDisplayed(). */
+    static final String VISIBLE_FUNCTION =
+        "var visible = function (el) {"
+            + "  if (!el.isConnected || el.getClientRects().length === 0) { return false; }"
+            + "  var s = window.getComputedStyle(el);"
+            + "  return s.visibility !== 'hidden' && s.display !== 'none' && parseFloat(s.opacity) !== 0;"
+            + "};";
+
+    private static final String PROBE_SCRIPT =
+        "var specs = arguments[0], mode = arguments[1], excluded = arguments[2], root = arguments[3] || document;"
+            + "var doc = root.ownerDocument || root;"
+            + QUERY_FUNCTION
+            + VISIBLE_FUNCTION
+            + "var accepts = function (el) {"
+            + "  if (mode !== 'PRESENT' && !visible(el)) { return false; }"
+            + "  if (mode === 'CLICKABLE' && el.disabled) { return false; }"
+            + "  var text = el.innerText || el.value || '';"
+            + "  for (var e = 0; e < excluded.length; e++) { if (text.indexOf(excluded[e]) >= 0) { return false; } }"
+            + "  return true;"
+            + "};"
+            + "for (var c = 0; c < specs.length; c++) {"
+            + "  var els; try { els = query(specs[c][0], specs[c][1]); } catch (err) { continue; }"
+            + "  for (var n = 0; n < els.length; n++) { if (accepts(els[n])) { return [c, els[n]]; } }"
+            + "}"
+            + "return null;";
+
+    private final String name;
+    private final List<By> candidates;
+    private Condition condition = Condition.VISIBLE;
+    private Duration budget = DEFAULT_BUDGET;
+    private List<String> excludedTexts = Collections.emptyList();
+
+    private SelectorChain(String name, List<By> candidates) {
+        this.name = name;
+        this.candidates = candidates;
+    }
+
+    /**
+     * @param name       stable identifier used in logs, e.g. "login.username"
+     * @param candidates locators in preference order
+     */
+    public static SelectorChain of(String name, By... candidates) {
+        return new SelectorChain(name, new ArrayList<>(Arrays.asList(candidates)));
+    }
+
+    public SelectorChain present() {
+        this.condition = Condition.PRESENT;
+        return this;
+    }
+
+    public SelectorChain visible() {
+        this.condition = Condition.VISIBLE;
+        return this;
+    }
+
+    public SelectorChain clickable() {
+        this.condition = Condition.CLICKABLE;
+        return this;
+    }
+
+    /**
+     * Total time allowed for the whole chain (default {@link #DEFAULT_BUDGET}).
+     */
+    public SelectorChain within(Duration budget) {
+        this.budget = budget;
+        return this;
+    }
+
+    /**
+     * Skip elements whose text contains any of the given strings.
+     */
+    public SelectorChain excludingText(String... texts) {
+        this.excludedTexts = Arrays.asList(texts);
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<By> getCandidates() {
+        return Collections.unmodifiableList(candidates);
+    }
+
+    /**
+     * The element that ended the search and the candidate that found it.
+     */
+    public static final class Match {
+        private final int index;
+        private final By locator;
+        private final WebElement element;
+
+        Match(int index, By locator, WebElement element) {
+            this.index = index;
+            this.locator = locator;
+            this.element = element;
+        }
+
+        /** Declared position of the winning locator in the chain. */
+        public int index() {
+            return index;
+        }
+
+        public By locator() {
+            return locator;
+        }
+
+        public WebElement element() {
+            return element;
+        }
+    }
+
+    /**
+     * Poll the whole chain until one candidate matches or the budget runs out, in learned order.
+     *
+     * @return the match, or null when nothing matched within the budget
+     */
+    public Match find(WebDriver driver) {
+        return find(driver, null);
+    }
+
+    /**
+     * Same as {@link #find(WebDriver)} but only searches below {@code root}; XPath candidates
+     * should then be relative (".//...").
+     */
+    public Match find(WebDriver driver, WebElement root) {
+        // try the historically best candidate first, see SelectorStats
+        int[] order = SelectorStats.shared().order(name, candidates.size());
+        long deadline = System.nanoTime() + budget.toNanos();
+        while (true) {
+            Match match = probe(driver, root, order);
+            if (match != null) {
+                SelectorStats.shared().record(name, candidates, order, match.index());
+                StepTimer.selectorWon(name, match.index());
+                return match;
+            }
+            if (System.nanoTime() >= deadline) {
+                System.out.println("[selector-chain] '" + name + "' matched nothing within " + budget.toMillis() + "ms");
+                SelectorStats.shared().record(name, candidates, order, -1);
+                StepTimer.selectorWon(name, -1);
+                return null;
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Check every candidate once, in declared order, without waiting.
+     */
+    public Match probe(WebDriver driver, WebElement root) {
+        int[] order = new int[candidates.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        return probe(driver, root, order);
+    }
+
+    /**
+     * Check every candidate once in the given order. Matches report the declared position.
+     */
+    private Match probe(WebDriver driver, WebElement root, int[] order) {
+        List<List<Object>> specs = new ArrayList<>();
+        boolean allScriptable = driver instanceof JavascriptExecutor;
+        for (int position : order) {
+            Object[] spec = toSpec(candidates.get(position));
+            if (spec == null) {
+                allScriptable = false;
+                specs.add(Arrays.asList("unsupported", ""));
+            } else {
+                specs.add(Arrays.asList(spec));
+            }
+        }
+
+        int scriptSlot = -1;
+        WebElement scriptElement = null;
+        if (driver instanceof JavascriptExecutor) {
+            try {
+                Object result = ((JavascriptExecutor) driver).executeScript(PROBE_SCRIPT, specs, condition.name(), excludedTexts, root);
+                if (result instanceof List) {
+                    List<?> pair = (List<?>) result;
+                    scriptSlot = ((Number) pair.get(0)).intValue();
+                    scriptElement = (WebElement) pair.get(1);
+                }
+            } catch (Exception e) {
+                // page navigating or script blocked; treat as no match on this poll
+            }
+        }
+        Match scriptMatch = scriptSlot < 0 ? null
+            : new Match(order[scriptSlot], candidates.get(order[scriptSlot]), scriptElement);
+        if (allScriptable) {
+            return scriptMatch;
+        }
+
+        // locators the script cannot evaluate are checked through WebDriver, in chain order
+        int limit = scriptSlot < 0 ? order.length : scriptSlot;
+        SearchContext context = root != null ? root : driver;
+        for (int slot = 0; slot < limit; slot++) {
+            By by = candidates.get(order[slot]);
+            if (driver instanceof JavascriptExecutor && toSpec(by) != null) {
+                continue;
+            }
+            try {
+                for (WebElement el : context.findElements(by)) {
+                    if (accepts(el)) {
+                        return new Match(order[slot], by, el);
+                    }
+                }
+            } catch (Exception ignored) {
+            }
+        }
+        return scriptMatch;
+    }
+
+    private boolean accepts(WebElement el) {
+        if (condition != Condition.PRESENT && !el.isDisplayed()) {
+            return false;
+        }
+        if (condition == Condition.CLICKABLE && !el.isEnabled()) {
+            return false;
+        }
+        if (!excludedTexts.isEmpty()) {
+            String text = el.getText();
+            for (String excluded : excludedTexts) {
+                if (text != null && text.contains(excluded)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Translate a locator into the (strategy, value) pair the probe script understands, or
+     * null when it can only be evaluated through WebDriver.
+     */
+    static Object[] toSpec(By by) {
+        if (!(by instanceof By.Remotable)) {
+            return null;
+        }
+        By.Remotable.Parameters params = ((By.Remotable) by).getRemoteParameters();
+        switch (params.using()) {
+            case "css selector":
+            case "xpath":
+            case "tag name":
+            case "id":
+            case "name":
+            case "class name":
+            case "link text":
+            case "partial link text":
+                return new Object[]{params.using(), String.valueOf(params.value())};
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.support;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Which locator of each named {@link SelectorChain} actually finds the element, kept across runs.
+ *
+ * Chains consult these statistics to try their recently best candidate first: the order
+ * follows a score that every resolution of the chain decays by {@link #DECAY} before adding
+ * one for the winner, so a locator that was pushed back wins its place again once the ones
+ * ahead of it stop matching. Statistics are keyed by chain name and declared position (not by
+ * the locator text), so chains that interpolate runtime values - e.g. MenuPage's per-item
+ * XPaths - still learn. Give a chain a new name when its candidate list is rewritten, or
+ * delete the store to start over.
+ *
+ * A locator only counts as tried when the resolution actually checked it: those ordered
+ * before the winner, or all of them when nothing matched. One that failed its last
+ * {@link #DEAD_AFTER_RUNS} tries is reported as dead; one that is never reached because an
+ * earlier locator always matches is not.
+ *
+ * The store is selector-stats.properties in {@link LocalCache#dir()}. At JVM shutdown this
+ * run's counts are merged into it (scores are this run's view; the last JVM to finish wins)
+ * and target/selector-stats-report.txt lists each chain's hit rates and the dead locators.
+ * Set -Dtaxmind.selectors.learn=false to keep declared order (statistics are still recorded).
+ */
+public final class SelectorStats {
+    private static final Path STORE = LocalCache.file("selector-stats.properties");
+    private static final Path REPORT = Paths.get("target", "selector-stats-report.txt");
+    /** Runs a chain needs before its order is trusted. */
+    private static final int MIN_RUNS = 3;
+    /** Failed tries in a row before a locator is reported as dead. */
+    private static final int DEAD_AFTER_RUNS = 10;
+    /** Weight left of a score after each resolution of its chain; scores level off at 1 / (1 - DECAY). */
+    private static final double DECAY = 0.9;
+
+    private static final SelectorStats SHARED = new SelectorStats();
+
+    private final Properties history;
+    private final Map<String, Long> delta = new TreeMap<>();
+    /** chain#position -> failed tries since its last hit in this run */
+    private final Map<String, Long> misses = new TreeMap<>();
+    /** chain#position of the locators that matched at least once in this run */
+    private final Set<String> hitThisRun = new TreeSet<>();
+    /** chain#position -> current score */
+    private final Map<String, Double> scores = new TreeMap<>();
+    private final Map<String, String> locators = new TreeMap<>();
+    private final boolean learn;
+
+    private SelectorStats() {
+        this.history = LocalCache.readProperties(STORE);
+        this.learn = !"false".equalsIgnoreCase(System.getProperty("taxmind.selectors.learn"));
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "selector-stats-flush"));
+    }
+
+    public static SelectorStats shared() {
+        return SHARED;
+    }
+
+    /**
+     * Order in which a chain's candidates should be tried: declared positions sorted by score,
+     * best first. Declared order is kept until the chain has enough history.
+     */
+    public synchronized int[] order(String chain, int size) {
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            positions.add(i);
+        }
+        if (learn && count(chain + ".runs") >= MIN_RUNS) {
+            // List.sort is stable, so ties keep their declared order
+            positions.sort((a, b) -> Double.compare(score(chain + "#" + b), score(chain + "#" + a)));
+        }
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = positions.get(i);
+        }
+        return order;
+    }
+
+    /**
+     * Record one resolution of a chain.
+     *
+     * @param order  declared positions in the order they were tried, as given by {@link #order}
+     * @param winner declared position of the locator that matched, or -1 when none did
+     */
+    public synchronized void record(String chain, List<?> candidates, int[] order, int winner) {
+        add(chain + ".runs");
+        for (int i = 0; i < candidates.size(); i++) {
+            String position = chain + "#" + i;
+            locators.put(position, String.valueOf(candidates.get(i)));
+            scores.put(position, score(position) * DECAY + (i == winner ? 1 : 0));
+        }
+        for (int position : order) {
+            String key = chain + "#" + position;
+            if (position == winner) {
+                add(key + ".hits");
+                hitThisRun.add(key);
+                misses.put(key, 0L);
+                break;
+            }
+            misses.merge(key, 1L, Long::sum);
+        }
+    }
+
+    private long count(String key) {
+        return parse(history.getProperty(key)) + delta.getOrDefault(key, 0L);
+    }
+
+    private double score(String position) {
+        Double score = scores.get(position);
+        if (score != null) {
+            return score;
+        }
+        String stored = history.getProperty(position + ".score");
+        if (stored != null) {
+            try {
+                return Double.parseDouble(stored);
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        // stores written before scores existed: raw hits, capped at what decay levels off at
+        return Math.min(parse(history.getProperty(position + ".hits")), 1 / (1 - DECAY));
+    }
+
+    private void add(String key) {
+        delta.merge(key, 1L, Long::sum);
+    }
+
+    private static long parse(String value) {
+        try {
+            return value == null ? 0L : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private synchronized void flush() {
+        if (delta.isEmpty()) {
+            return;
+        }
+        // re-read so counts from JVMs that finished in the meantime are not lost
+        Properties merged = LocalCache.readProperties(STORE);
+        for (Map.Entry<String, Long> e : delta.entrySet()) {
+            merged.setProperty(e.getKey(), String.valueOf(parse(merged.getProperty(e.getKey())) + e.getValue()));
+        }
+        for (Map.Entry<String, Long> e : misses.entrySet()) {
+            String key = e.getKey() + ".misses";
+            long streak = hitThisRun.contains(e.getKey()) ? e.getValue() : parse(merged.getProperty(key)) + e.getValue();
+            merged.setProperty(key, String.valueOf(streak));
+        }
+        for (Map.Entry<String, Double> e : scores.entrySet()) {
+            merged.setProperty(e.getKey() + ".score", String.format(Locale.ROOT, "%.4f", e.getValue()));
+        }
+        for (Map.Entry<String, String> e : locators.entrySet()) {
+            merged.setProperty(e.getKey() + ".locator", e.getValue());
+        }
+        LocalCache.writeProperties(STORE, merged, "SelectorChain hit statistics");
+        writeReport(merged);
+    }
+
+    private void writeReport(Properties merged) {
+        TreeSet<String> chains = new TreeSet<>();
+        for (String key : merged.stringPropertyNames()) {
+            if (key.endsWith(".runs")) {
+                chains.add(key.substring(0, key.length() - ".runs".length()));
+            }
+        }
+
+        StringBuilder report = new StringBuilder();
+        StringBuilder dead = new StringBuilder();
+        int deadCount = 0;
+        for (String chain : chains) {
+            long runs = parse(merged.getProperty(chain + ".runs"));
+            long hits = 0;
+            report.append(chain).append(" (").append(runs).append(" runs)\n");
+            for (int i = 0; merged.getProperty(chain + "#" + i + ".locator") != null; i++) {
+                long wins = parse(merged.getProperty(chain + "#" + i + ".hits"));
+                hits += wins;
+                String locator = merged.getProperty(chain + "#" + i + ".locator");
+                report.append(String.format("  #%d %5.1f%%  %s%n", i, runs == 0 ? 0.0 : 100.0 * wins / runs, locator));
+                if (parse(merged.getProperty(chain + "#" + i + ".misses")) >= DEAD_AFTER_RUNS) {
+                    dead.append("  ").append(chain).append(" #").append(i).append("  ").append(locator).append('\n');
+                    deadCount++;
+                }
+            }
+            report.append(String.format("  no match %5.1f%%%n", runs == 0 ? 0.0 : 100.0 * (runs - hits) / runs));
+        }
+        report.append("\nTried and failed ").append(DEAD_AFTER_RUNS).append("+ times in a row (candidates for deletion):\n");
+        report.append(deadCount == 0 ? "  none\n" : dead.toString());
+
+        try {
+            Files.createDirectories(REPORT.getParent());
+            Files.write(REPORT, report.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException ignored) {
+        }
+        if (deadCount > 0) {
+            System.out.println("[selector-stats] " + deadCount + " locator(s) keep failing, see " + REPORT.toAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.example.support;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs independent page-object workflows at once, each on its own virtual thread with its own
+ * browser session bound as the thread's {@link DriverContext}.
+ *
+ * A workflow mostly waits (WebDriver waits, sleeps, HTTP to chromedriver), and on a virtual
+ * thread that wait parks instead of holding a platform thread, so the number of parallel
+ * sessions is bounded by the browsers rather than a thread pool. Workflows are forked into an
+ * orchestrator and joined together, like Java 21's StructuredTaskScope (still a preview API):
+ * in a {@link #failFast} orchestrator the first workflow that throws or overruns its deadline
+ * cancels the others, a {@link #tolerant} one lets them finish. Cancelling interrupts the
+ * workflow's thread, which WebDriver waits, sleeps and chromedriver calls give up on.
+ *
+ * Sessions are leased from a {@link DriverPool}, logged in from an {@link AuthSnapshot} when
+ * one is given, and returned when the workflow ends; sessions of cancelled or overrun
+ * workflows are discarded, since the browser may be halfway through a command. A workflow that
+ * fails on its own (not by cancellation) gets a {@link Diagnostics} capture of its session.
+ */
+public final class SessionOrchestrator implements AutoCloseable {
+    private static final ScheduledExecutorService DEADLINES = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "workflow-deadline");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * A page-object workflow run against one session. Throwing fails the workflow; outcomes
+     * that should not stop the other workflows are better returned as values.
+     */
+    public interface Workflow<T> {
+        T run(DriverContext session) throws Exception;
+    }
+
+    public enum State { RUNNING, SUCCEEDED, FAILED, CANCELLED }
+
+    private final DriverPool sessions;
+    private final AuthSnapshot login;
+    private final boolean cancelOnFailure;
+    private final ExecutorService threads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().factory());
+    private final List<Task<?>> tasks = new ArrayList<>();
+    private Duration deadline;
+    private Task<?> firstFailure;
+    private boolean shutdown;
+
+    private SessionOrchestrator(DriverPool sessions, AuthSnapshot login, boolean cancelOnFailure) {
+        this.sessions = sessions;
+        this.login = login;
+        this.cancelOnFailure = cancelOnFailure;
+    }
+
+    /**
+     * An orchestrator whose first failing workflow cancels the rest.
+     *
+     * @param login restored into every session before its workflow runs; null for none
+     */
+    public static SessionOrchestrator failFast(DriverPool sessions, AuthSnapshot login) {
+        return new SessionOrchestrator(sessions, login, true);
+    }
+
+    /**
+     * An orchestrator whose workflows all run to the end, whatever happens to the others.
+     *
+     * @param login restored into every session before its workflow runs; null for none
+     */
+    public static SessionOrchestrator tolerant(DriverPool sessions, AuthSnapshot login) {
+        return new SessionOrchestrator(sessions, login, false);
+    }
+
+    /**
+     * Deadline for workflows forked without one of their own; null (the default) for none.
+     */
+    public SessionOrchestrator deadline(Duration deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+
+    public <T> Task<T> fork(String name, Workflow<T> workflow) {
+        return fork(name, deadline, workflow);
+    }
+
+    /**
+     * Start a workflow on a new virtual thread named after it.
+     *
+     * @param deadline time from now after which the workflow is interrupted and fails; null
+     *                 for none. It covers starting the session too.
+     */
+    public <T> Task<T> fork(String name, Duration deadline, Workflow<T> workflow) {
+        Task<T> task = new Task<>(name);
+        synchronized (this) {
+            tasks.add(task);
+            if (shutdown) {
+                task.finish(State.CANCELLED, null, null);
+                return task;
+            }
+            task.future = threads.submit(() -> run(task, deadline, workflow));
+        }
+        return task;
+    }
+
+    private <T> void run(Task<T> task, Duration deadline, Workflow<T> workflow) {
+        Thread.currentThread().setName(task.name);
+        ScheduledFuture<?> timer = deadline == null ? null
+            : DEADLINES.schedule(task::expire, deadline.toMillis(), TimeUnit.MILLISECONDS);
+        WebDriver driver = null;
+        try {
+            if (!task.begin(Thread.currentThread())) {
+                return;
+            }
+            driver = sessions.lease();
+            if (login != null) {
+                login.restore(driver);
+            }
+            if (task.state() != State.RUNNING) {
+                // cancelled or overran its deadline while the session was starting
+                return;
+            }
+            DriverContext session = new DriverContext(driver, new WebDriverWait(driver, Duration.ofSeconds(15)));
+            DriverContext.bind(session);
+            T value = workflow.run(session);
+            task.finish(State.SUCCEEDED, value, null);
+        } catch (Throwable e) {
+            task.finish(State.FAILED, null, e);
+            if (driver != null && task.state() == State.FAILED && !task.interrupted) {
+                Diagnostics.shared().capture(driver, task.name, e);
+            }
+        } finally {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            DriverContext.clear();
+            // the pool's reset must not trip over the interrupt that cancelled the workflow
+            Thread.interrupted();
+            if (driver != null) {
+                if (task.state() == State.SUCCEEDED || task.state() == State.FAILED && !task.interrupted) {
+                    sessions.release(driver);
+                } else {
+                    sessions.discard(driver);
+                }
+            }
+            if (task.state() == State.FAILED) {
+                failed(task);
+            }
+        }
+    }
+
+    private void failed(Task<?> task) {
+        List<Task<?>> running;
+        synchronized (this) {
+            if (firstFailure == null) {
+                firstFailure = task;
+            }
+            if (!cancelOnFailure || shutdown) {
+                return;
+            }
+            shutdown = true;
+            running = new ArrayList<>(tasks);
+        }
+        System.out.println("[orchestrator] " + task.name + " failed, cancelling the other workflows: " + task.failure);
+        for (Task<?> other : running) {
+            other.cancel();
+        }
+    }
+
+    /**
+     * Wait for every forked workflow to end. An interrupt cancels the workflows that are still
+     * running and returns with the interrupt flag set.
+     */
+    public SessionOrchestrator join() {
+        int joined = 0;
+        while (true) {
+            Task<?> next;
+            synchronized (this) {
+                if (joined == tasks.size()) {
+                    return this;
+                }
+                next = tasks.get(joined++);
+            }
+            if (next.future == null) {
+                continue;
+            }
+            try {
+                next.future.get();
+            } catch (ExecutionException | CancellationException ignored) {
+            } catch (InterruptedException e) {
+                cancelAll();
+                Thread.currentThread().interrupt();
+                return this;
+            }
+        }
+    }
+
+    /**
+     * Throw the first workflow failure, if any, once {@link #join()} has returned.
+     */
+    public void throwIfFailed() {
+        Task<?> failed;
+        synchronized (this) {
+            failed = firstFailure;
+        }
+        if (failed != null) {
+            throw new RuntimeException("Workflow " + failed.name + " failed: " + failed.failure, failed.failure);
+        }
+    }
+
+    /**
+     * The workflows forked so far, in fork order.
+     */
+    public synchronized List<Task<?>> tasks() {
+        return new ArrayList<>(tasks);
+    }
+
+    /**
+     * Cancel what is still running and wait for it to let go of its session.
+     */
+    @Override
+    public void close() {
+        cancelAll();
+        threads.close();
+    }
+
+    private void cancelAll() {
+        List<Task<?>> running;
+        synchronized (this) {
+            shutdown = true;
+            running = new ArrayList<>(tasks);
+        }
+        for (Task<?> task : running) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * One forked workflow and, once it has ended, its outcome.
+     */
+    public static final class Task<T> {
+        private final String name;
+        private final long created = System.nanoTime();
+        private volatile Future<?> future;
+        private Thread thread;
+        private State state = State.RUNNING;
+        private T result;
+        private Throwable failure;
+        private long endNanos;
+        /** set when the workflow was cancelled or overran its deadline while running */
+        private volatile boolean interrupted;
+
+        private Task(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public synchronized State state() {
+            return state;
+        }
+
+        /**
+         * The workflow's return value.
+         *
+         * @throws IllegalStateException when the workflow has not succeeded
+         */
+        public synchronized T result() {
+            if (state != State.SUCCEEDED) {
+                throw new IllegalStateException("Workflow " + name + " is " + state);
+            }
+            return result;
+        }
+
+        /** what the workflow failed with, a TimeoutException when it overran its deadline */
+        public synchronized Throwable failure() {
+            return failure;
+        }
+
+        /** time from fork to end, or until now while running */
+        public synchronized long elapsedMs() {
+            return ((state == State.RUNNING ? System.nanoTime() : endNanos) - created) / 1_000_000L;
+        }
+
+        private synchronized boolean begin(Thread runner) {
+            if (state != State.RUNNING) {
+                return false;
+            }
+            thread = runner;
+            return true;
+        }
+
+        private synchronized void finish(State outcome, T value, Throwable error) {
+            if (state == State.RUNNING) {
+                state = outcome;
+                result = value;
+                failure = error;
+                endNanos = System.nanoTime();
+            } else if (failure instanceof TimeoutException && failure.getCause() == null && error != null) {
+                // keep what the workflow was doing when its deadline interrupted it
+                failure.initCause(error);
+            }
+            thread = null;
+        }
+
+        private synchronized void cancel() {
+            if (state != State.RUNNING) {
+                return;
+            }
+            state = State.CANCELLED;
+            endNanos = System.nanoTime();
+            interrupt();
+        }
+
+        private synchronized void expire() {
+            if (state != State.RUNNING) {
+                return;
+            }
+            state = State.FAILED;
+            failure = new TimeoutException("Workflow " + name + " overran its deadline after "
+                + (System.nanoTime() - created) / 1_000_000L + "ms");
+            endNanos = System.nanoTime();
+            interrupt();
+        }
+
+        private void interrupt() {
+            if (thread != null) {
+                interrupted = true;
+                thread.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process stand-in for the TaxMind site, serving the landing, login, OTP, profile,
+ * application/questionnaire and signup flows from fixtures in src/test/resources/standin.
+ *
+ * The pages carry the markup the page objects look for and call a small JSON API under
+ * /api, so network and UI-idle waits behave like they do against the real app. Any
+ * password logs in; the OTP is 123456. Start it with -Dtaxmind.site=standin (see
+ * {@link TestSite}).
+ */
+public final class StandInServer {
+    private static final String OTP = "123456";
+    private static final String SESSION_COOKIE = "tm_session";
+    private static final Json JSON = new Json();
+
+    private static final Map<String, String> PAGES = Map.of(
+        "/", "index.html",
+        "/login", "login.html",
+        "/otp", "otp.html",
+        "/profile", "profile.html",
+        "/application", "application.html",
+        "/apply", "signup.html",
+        "/signup", "signup.html",
+        "/contact-us", "contact-us.html");
+
+    private static StandInServer shared;
+
+    private final HttpServer server;
+    /** session token -> email */
+    private final Map<String, String> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * @param port loopback port to listen on, 0 for any free port
+     */
+    public StandInServer(int port) {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start stand-in server: " + e.getMessage(), e);
+        }
+        server.createContext("/api/", this::handleApi);
+        server.createContext("/", this::handlePage);
+        server.setExecutor(Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "standin-http");
+            t.setDaemon(true);
+            return t;
+        }));
+    }
+
+    /**
+     * The JVM-wide server, started on first use and stopped at shutdown.
+     */
+    public static synchronized StandInServer shared() {
+        if (shared == null) {
+            shared = new StandInServer(Integer.getInteger("taxmind.standin.port", 0));
+            shared.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::stop, "standin-shutdown"));
+            System.out.println("[standin] Serving the stand-in site at " + shared.baseUrl());
+        }
+        return shared;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    /**
+     * Base URL with a trailing slash, e.g. http://127.0.0.1:50123/
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    private void handlePage(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        if (path.startsWith("/assets/") && !path.contains("..")) {
+            byte[] asset = resource(path.substring(1));
+            if (asset == null) {
+                send(exchange, 404, "text/plain", new byte[0]);
+            } else {
+                send(exchange, 200, path.endsWith(".css") ? "text/css" : "application/javascript", asset);
+            }
+            return;
+        }
+        if (path.equals("/robots.txt")) {
+            // AuthSnapshot.restore lands here to get a document on this origin
+            send(exchange, 200, "text/plain", "User-agent: *\nDisallow:\n".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        if (path.equals("/favicon.ico")) {
+            send(exchange, 200, "text/plain", new byte[0]);
+            return;
+        }
+        String page = PAGES.get(path);
+        if (page == null) {
+            send(exchange, 404, "text/html", "<h1>Not found</h1>".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        if ((path.equals("/profile") || path.equals("/application")) && session(exchange) == null) {
+            exchange.getResponseHeaders().add("Location", "/");
+            send(exchange, 302, "text/plain", new byte[0]);
+            return;
+        }
+        String html = new String(resource(page), StandardCharsets.UTF_8)
+            .replace("{{header}}", new String(resource("_header.html"), StandardCharsets.UTF_8))
+            .replace("{{footer}}", new String(resource("_footer.html"), StandardCharsets.UTF_8));
+        send(exchange, 200, "text/html; charset=utf-8", html.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void handleApi(HttpExchange exchange) throws IOException {
+        String route = exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath();
+        Map<String, Object> body = readJson(exchange);
+        switch (route) {
+            case "POST /api/login":
+                if (isBlank(body.get("email")) || isBlank(body.get("password"))) {
+                    sendJson(exchange, 401, Map.of("error", "Invalid credentials"));
+                } else {
+                    // the email is remembered until the OTP step, like the real app's pending login
+                    String pending = UUID.randomUUID().toString();
+                    sessions.put("pending:" + pending, String.valueOf(body.get("email")));
+                    exchange.getResponseHeaders().add("Set-Cookie", "tm_pending=" + pending + "; Path=/; HttpOnly");
+                    sendJson(exchange, 200, Map.of("otpRequired", true));
+                }
+                return;
+            case "POST /api/otp":
+                String pending = cookie(exchange, "tm_pending");
+                String email = pending == null ? null : sessions.remove("pending:" + pending);
+                if (email == null || !OTP.equals(body.get("otp"))) {
+                    sendJson(exchange, 401, Map.of("error", "Invalid code"));
+                } else {
+                    String token = UUID.randomUUID().toString();
+                    sessions.put(token, email);
+                    exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + token + "; Path=/; HttpOnly");
+                    sendJson(exchange, 200, Map.of("ok", true));
+                }
+                return;
+            case "POST /api/logout":
+                String current = cookie(exchange, SESSION_COOKIE);
+                if (current != null) {
+                    sessions.remove(current);
+                }
+                exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=; Path=/; Max-Age=0");
+                sendJson(exchange, 200, Map.of("ok", true));
+                return;
+            case "POST /api/signup":
+                sendJson(exchange, isBlank(body.get("email")) ? 400 : 200, Map.of("otpRequired", true));
+                return;
+            case "POST /api/signup/otp":
+                if (!OTP.equals(body.get("otp"))) {
+                    sendJson(exchange, 401, Map.of("error", "Invalid code"));
+                } else if ("phone".equals(body.get("channel"))) {
+                    sendJson(exchange, 200, Map.of("message",
+                        "E-sign is blocked for " + body.get("email") + " until your identity has been verified."));
+                } else {
+                    sendJson(exchange, 200, Map.of("ok", true));
+                }
+                return;
+            default:
+                break;
+        }
+
+        String user = session(exchange);
+        if (user == null) {
+            sendJson(exchange, 401, Map.of("error", "Not logged in"));
+            return;
+        }
+        switch (route) {
+            case "GET /api/profile":
+                sendJson(exchange, 200, Map.of("Name", "Jishnu MN", "Email", user, "PPS Number", "1234567AB"));
+                return;
+            case "GET /api/applications":
+                sendJson(exchange, 200, List.of(
+                    Map.of("id", 2026, "year", 2026, "status", "In progress"),
+                    Map.of("id", 2025, "year", 2025, "status", "Submitted")));
+                return;
+            case "POST /api/questionnaire":
+                sendJson(exchange, 200, Map.of("saved", true));
+                return;
+            default:
+                sendJson(exchange, 404, Map.of("error", "No route " + route));
+        }
+    }
+
+    private String session(HttpExchange exchange) {
+        String token = cookie(exchange, SESSION_COOKIE);
+        return token == null ? null : sessions.get(token);
+    }
+
+    private static String cookie(HttpExchange exchange, String name) {
+        List<String> headers = exchange.getRequestHeaders().get("Cookie");
+        if (headers == null) {
+            return null;
+        }
+        for (String header : headers) {
+            for (String pair : header.split(";")) {
+                String[] kv = pair.trim().split("=", 2);
+                if (kv.length == 2 && kv[0].equals(name) && !kv[1].isEmpty()) {
+                    return kv[1];
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, Object> readJson(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            String text = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+            if (!text.startsWith("{")) {
+                return Map.of();
+            }
+            return JSON.toType(text, Json.MAP_TYPE);
+        }
+    }
+
+    private static boolean isBlank(Object value) {
+        return value == null || String.valueOf(value).trim().isEmpty();
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        send(exchange, status, "application/json", JSON.toJson(body).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] resource(String name) throws IOException {
+        try (InputStream in = StandInServer.class.getResourceAsStream("/standin/" + name)) {
+            return in == null ? null : in.readAllBytes();
+        }
+    }
+}
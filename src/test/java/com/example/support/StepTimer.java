@@ -0,0 +1,359 @@
+package com.example.support;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Times every page-object action of a test without touching the page objects.
+ *
+ * Sessions from {@link DriverFactory} are decorated with a listener that times each driver
+ * command and charges it to the page-object method it was issued from: the outermost
+ * com.example.pages frame on the stack, together with the line of test code that called it.
+ * Consecutive commands of the same call form one step. Time inside explicit waits
+ * (WebDriverWait, {@link UiIdle}, {@link SelectorChain#find}, {@link OtpLocator#find},
+ * {@link NetworkTracker}) counts as waiting, including the pauses between polls; the rest of
+ * the step is driver commands or Java-side work. Selector chains report which candidate won.
+ *
+ * BaseTest brackets every test with {@link #begin(String)} / {@link #end()}, which writes
+ * target/steps/&lt;test&gt;.json and .csv and prints the slowest steps. Page-load timings from
+ * {@link PageTiming} go into the same JSON under "pages", keyed by URL, and into
+ * &lt;test&gt;.pages.csv. Disable with
+ * -Dtaxmind.steps=false.
+ */
+public final class StepTimer {
+    private static final Path REPORT_DIR = Paths.get("target", "steps");
+    private static final String PAGES_PACKAGE = "com.example.pages.";
+    private static final Set<String> WAIT_FRAMES = Set.of(
+        "org.openqa.selenium.support.ui.FluentWait#until",
+        "com.example.support.UiIdle#waitForUiIdle",
+        "com.example.support.SelectorChain#find",
+        "com.example.support.OtpLocator#find");
+    private static final StackWalker WALKER = StackWalker.getInstance();
+    /** inherited so that crawl workers started by a test can add page timings to its report */
+    private static final ThreadLocal<Recording> CURRENT = new InheritableThreadLocal<>();
+    private static final Json JSON = new Json();
+
+    private static final WebDriverListener LISTENER = new WebDriverListener() {
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            Recording recording = owned();
+            if (recording != null && recording.depth++ == 0) {
+                recording.commandStart = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            finished();
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            finished();
+        }
+
+        private void finished() {
+            Recording recording = owned();
+            if (recording != null && recording.depth > 0 && --recording.depth == 0) {
+                recording.event(recording.commandStart, System.nanoTime(), false);
+            }
+        }
+    };
+
+    private StepTimer() {
+    }
+
+    public static boolean enabled() {
+        return !"false".equalsIgnoreCase(System.getProperty("taxmind.steps"));
+    }
+
+    /**
+     * Decorate a new session so its commands are timed; returns the driver unchanged when
+     * timing is disabled.
+     */
+    public static WebDriver instrument(WebDriver driver) {
+        if (!enabled()) {
+            return driver;
+        }
+        return new EventFiringDecorator<WebDriver>(LISTENER).decorate(driver);
+    }
+
+    /**
+     * Start recording the steps the current thread runs.
+     */
+    public static void begin(String testName) {
+        if (enabled()) {
+            CURRENT.set(new Recording(testName));
+        }
+    }
+
+    /**
+     * Stop recording on the current thread and write the report.
+     */
+    public static void end() {
+        Recording recording = CURRENT.get();
+        CURRENT.remove();
+        if (recording != null) {
+            recording.write();
+        }
+    }
+
+    /**
+     * Charge an explicit wait that issues no driver commands, e.g. a network-idle wait.
+     */
+    public static void waited(long startNanos) {
+        Recording recording = owned();
+        if (recording != null && recording.depth == 0) {
+            recording.event(startNanos, System.nanoTime(), true);
+        }
+    }
+
+    /**
+     * Note which candidate of a selector chain matched (-1 for none) in the current step.
+     */
+    public static void selectorWon(String chain, int index) {
+        Recording recording = owned();
+        if (recording != null) {
+            recording.attribute(System.nanoTime()).selectors.add(chain + "#" + index);
+        }
+    }
+
+    /**
+     * Add a page's load timings (see {@link PageTiming}) to the running test's report. Also
+     * works from threads the test started.
+     */
+    public static void pageTiming(String url, Map<String, Object> timing) {
+        Recording recording = CURRENT.get();
+        if (recording != null) {
+            synchronized (recording.pages) {
+                recording.pages.computeIfAbsent(url, k -> new ArrayList<>()).add(timing);
+            }
+        }
+    }
+
+    /**
+     * Page-load timings recorded so far in the running test, url -> visits in order.
+     */
+    public static Map<String, List<Map<String, Object>>> pages() {
+        Recording recording = CURRENT.get();
+        if (recording == null) {
+            return Map.of();
+        }
+        synchronized (recording.pages) {
+            return new LinkedHashMap<>(recording.pages);
+        }
+    }
+
+    /**
+     * Steps recorded so far by the test running on this thread, in order, each with its
+     * wall-clock start (epoch ms) so it can be lined up with timestamps taken in the browser.
+     */
+    public static List<Map<String, Object>> timeline() {
+        Recording recording = owned();
+        if (recording == null) {
+            return List.of();
+        }
+        List<Map<String, Object>> timeline = new ArrayList<>();
+        for (Step step : recording.steps) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("step", step.name);
+            row.put("caller", step.caller);
+            row.put("atMs", recording.startedAtMs + (step.start - recording.started) / 1_000_000L);
+            timeline.add(row);
+        }
+        return timeline;
+    }
+
+    /**
+     * The recording of the test running on this thread; steps are only timed on that thread.
+     */
+    private static Recording owned() {
+        Recording recording = CURRENT.get();
+        return recording != null && recording.owner == Thread.currentThread() ? recording : null;
+    }
+
+    private static final class Step {
+        final String name;
+        final String caller;
+        final long start;
+        long end;
+        long commandNanos;
+        long waitNanos;
+        int commands;
+        final List<String> selectors = new ArrayList<>();
+
+        Step(String name, String caller, long start) {
+            this.name = name;
+            this.caller = caller;
+            this.start = start;
+            this.end = start;
+        }
+
+        long otherNanos() {
+            return Math.max(0, end - start - commandNanos - waitNanos);
+        }
+    }
+
+    private static final class Recording {
+        final String test;
+        final Thread owner = Thread.currentThread();
+        final long started = System.nanoTime();
+        final long startedAtMs = System.currentTimeMillis();
+        final List<Step> steps = new ArrayList<>();
+        /** url -> timings of every visit, in order */
+        final Map<String, List<Map<String, Object>>> pages = new LinkedHashMap<>();
+        int depth;
+        long commandStart;
+
+        Recording(String test) {
+            this.test = test;
+        }
+
+        void event(long start, long end, boolean explicitWait) {
+            Step step = attribute(start);
+            boolean waiting = explicitWait || insideWait();
+            if (waiting) {
+                // the pause since the previous event belongs to the wait that polls again
+                step.waitNanos += Math.max(0, start - step.end) + (end - start);
+            } else {
+                step.commandNanos += end - start;
+            }
+            if (!explicitWait) {
+                step.commands++;
+            }
+            step.end = Math.max(step.end, end);
+        }
+
+        /**
+         * The step the current call belongs to; a new one starting at {@code start} if the
+         * caller changed.
+         */
+        Step attribute(long start) {
+            String[] where = WALKER.walk(frames -> {
+                String name = null;
+                String caller = null;
+                boolean inPages = false;
+                for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                    boolean page = frame.getClassName().startsWith(PAGES_PACKAGE);
+                    if (page) {
+                        name = simpleName(frame.getClassName()) + "." + frame.getMethodName();
+                        inPages = true;
+                    } else if (inPages) {
+                        caller = simpleName(frame.getClassName()) + ":" + frame.getLineNumber();
+                        inPages = false;
+                    } else if (name == null && frame.getClassName().startsWith("com.example.")
+                        && !frame.getClassName().startsWith("com.example.support.")) {
+                        // driver used directly from test code
+                        name = simpleName(frame.getClassName()) + "." + frame.getMethodName();
+                        caller = simpleName(frame.getClassName()) + ":" + frame.getLineNumber();
+                    }
+                }
+                return new String[]{name != null ? name : "(harness)", caller != null ? caller : ""};
+            });
+            Step last = steps.isEmpty() ? null : steps.get(steps.size() - 1);
+            if (last != null && last.name.equals(where[0]) && last.caller.equals(where[1])) {
+                return last;
+            }
+            Step step = new Step(where[0], where[1], start);
+            steps.add(step);
+            return step;
+        }
+
+        void write() {
+            long total = System.nanoTime() - started;
+            List<Map<String, Object>> rows = new ArrayList<>();
+            StringBuilder csv = new StringBuilder("step,caller,startMs,durationMs,commandMs,waitMs,otherMs,commands,selectors\n");
+            for (Step step : steps) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("step", step.name);
+                row.put("caller", step.caller);
+                row.put("startMs", ms(step.start - started));
+                row.put("durationMs", ms(step.end - step.start));
+                row.put("commandMs", ms(step.commandNanos));
+                row.put("waitMs", ms(step.waitNanos));
+                row.put("otherMs", ms(step.otherNanos()));
+                row.put("commands", step.commands);
+                row.put("selectors", step.selectors);
+                rows.add(row);
+                csv.append(step.name).append(',').append(step.caller).append(',')
+                    .append(row.get("startMs")).append(',').append(row.get("durationMs")).append(',')
+                    .append(row.get("commandMs")).append(',').append(row.get("waitMs")).append(',')
+                    .append(row.get("otherMs")).append(',').append(step.commands).append(',')
+                    .append(String.join(" ", step.selectors)).append('\n');
+            }
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("test", test);
+            report.put("totalMs", ms(total));
+            report.put("steps", rows);
+            StringBuilder pagesCsv = new StringBuilder(
+                "url,label,soft,ttfbMs,domContentLoadedMs,loadMs,transferBytes,resources,resourceBytes\n");
+            synchronized (pages) {
+                report.put("pages", new LinkedHashMap<>(pages));
+                pages.forEach((url, visits) -> visits.forEach(t -> pagesCsv.append(pageRow(url, t))));
+            }
+            try {
+                Files.createDirectories(REPORT_DIR);
+                Files.write(REPORT_DIR.resolve(test + ".json"), JSON.toJson(report).getBytes(StandardCharsets.UTF_8));
+                Files.write(REPORT_DIR.resolve(test + ".csv"), csv.toString().getBytes(StandardCharsets.UTF_8));
+                if (!pages.isEmpty()) {
+                    Files.write(REPORT_DIR.resolve(test + ".pages.csv"), pagesCsv.toString().getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (IOException e) {
+                System.out.println("[steps] Failed to write report for " + test + ": " + e.getMessage());
+                return;
+            }
+
+            StringBuilder summary = new StringBuilder("[steps] " + test + ": " + steps.size() + " step(s) in "
+                + ms(total) + "ms, report in " + REPORT_DIR.resolve(test + ".json"));
+            steps.stream()
+                .sorted(Comparator.comparingLong((Step s) -> s.end - s.start).reversed())
+                .limit(5)
+                .forEach(s -> summary.append("\n[steps]   ").append(s.name).append(" (").append(s.caller).append(") ")
+                    .append(ms(s.end - s.start)).append("ms, wait ").append(ms(s.waitNanos)).append("ms, driver ")
+                    .append(ms(s.commandNanos)).append("ms"));
+            System.out.println(summary);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String pageRow(String url, Map<String, Object> timing) {
+        Map<String, Object> nav = (Map<String, Object>) timing.getOrDefault("navigation", Map.of());
+        Map<String, Object> resources = (Map<String, Object>) timing.getOrDefault("resources", Map.of());
+        return url + "," + timing.get("label") + "," + timing.get("soft") + ","
+            + nav.getOrDefault("ttfbMs", "") + "," + nav.getOrDefault("domContentLoadedMs", "") + ","
+            + nav.getOrDefault("loadMs", "") + "," + nav.getOrDefault("transferBytes", "") + ","
+            + resources.getOrDefault("count", "") + "," + resources.getOrDefault("transferBytes", "") + "\n";
+    }
+
+    private static boolean insideWait() {
+        return WALKER.walk(frames -> frames
+            .map(f -> f.getClassName() + "#" + f.getMethodName())
+            .anyMatch(WAIT_FRAMES::contains));
+    }
+
+    private static String simpleName(String className) {
+        String simple = className.substring(className.lastIndexOf('.') + 1);
+        int inner = simple.indexOf('$');
+        return inner > 0 ? simple.substring(0, inner) : simple;
+    }
+
+    private static long ms(long nanos) {
+        return nanos / 1_000_000L;
+    }
+}
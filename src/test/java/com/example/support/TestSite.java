@@ -0,0 +1,34 @@
+package com.example.support;
+
+/**
+ * The site the tests run against, chosen with -Dtaxmind.site:
+ * dev (default, https://dev.taxmind.ie/), standin (the in-process {@link StandInServer})
+ * or any base URL.
+ */
+public final class TestSite {
+    private static final String DEV = "https://dev.taxmind.ie/";
+
+    private TestSite() {
+    }
+
+    /**
+     * Base URL with a trailing slash.
+     */
+    public static String baseUrl() {
+        String site = System.getProperty("taxmind.site", "dev").trim();
+        if (site.isEmpty() || site.equalsIgnoreCase("dev")) {
+            return DEV;
+        }
+        if (site.equalsIgnoreCase("standin")) {
+            return StandInServer.shared().baseUrl();
+        }
+        return site.endsWith("/") ? site : site + "/";
+    }
+
+    /**
+     * Absolute URL of a path on the site, e.g. url("contact-us").
+     */
+    public static String url(String path) {
+        return baseUrl() + (path.startsWith("/") ? path.substring(1) : path);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Finds elements by case-insensitive text in one in-page pass over the text nodes, instead of
+ * an XPath like {@code //*[contains(translate(., 'ABC...', 'abc...'), 'term')]} that builds the
+ * string value of every element in the document for every term.
+ *
+ * A single TreeWalker visits each text node below the root once and checks it against all
+ * terms; a match yields the element that holds the text, not its ancestors. Whitespace runs
+ * are collapsed on both sides, and text in script, style, noscript and template elements is
+ * skipped. A term split across elements (e.g. "Terms &amp; &lt;b&gt;Conditions&lt;/b&gt;")
+ * does not match.
+ *
+ * <pre>
+ * List&lt;WebElement&gt; labels = TextLocator.containing("i agree", "consent").visible().find(driver);
+ * </pre>
+ */
+public final class TextLocator {
+    private static final String FIND_SCRIPT =
+        "var terms = arguments[0], onlyVisible = arguments[1], root = arguments[2] || document.body;"
+            + SelectorChain.VISIBLE_FUNCTION
+            + "var skipped = { SCRIPT: 1, STYLE: 1, NOSCRIPT: 1, TEMPLATE: 1 };"
+            + "var found = { all: [], each: terms.map(function () { return []; }) };"
+            + "if (!root) { return found; }"
+            + "var walker = document.createTreeWalker(root, NodeFilter.SHOW_TEXT);"
+            + "for (var node = walker.nextNode(); node; node = walker.nextNode()) {"
+            + "  var el = node.parentElement;"
+            + "  if (!el || skipped[el.nodeName]) { continue; }"
+            + "  var text = node.nodeValue.replace(/\\s+/g, ' ').toLowerCase(), shown = null;"
+            + "  for (var i = 0; i < terms.length; i++) {"
+            + "    var list = found.each[i];"
+            + "    if (text.indexOf(terms[i]) < 0 || list.indexOf(el) >= 0) { continue; }"
+            + "    if (shown === null) { shown = !onlyVisible || visible(el); }"
+            + "    if (shown) {"
+            + "      list.push(el);"
+            + "      if (found.all.indexOf(el) < 0) { found.all.push(el); }"
+            + "    }"
+            + "  }"
+            + "}"
+            + "return found;";
+
+    private final List<String> given;
+    /** lower-cased, whitespace collapsed */
+    private final List<String> terms = new ArrayList<>();
+    private boolean onlyVisible;
+
+    private TextLocator(List<String> given) {
+        this.given = given;
+        for (String term : given) {
+            terms.add(term.replaceAll("\\s+", " ").toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Match elements whose text contains any of the terms, ignoring case.
+     */
+    public static TextLocator containing(String... terms) {
+        return new TextLocator(List.of(terms));
+    }
+
+    /**
+     * Only return elements that are displayed, checked in the same pass.
+     */
+    public TextLocator visible() {
+        onlyVisible = true;
+        return this;
+    }
+
+    public List<WebElement> find(WebDriver driver) {
+        return find(driver, null);
+    }
+
+    /**
+     * Elements matching any term, in the order their text appears.
+     *
+     * @param root element to search below; null for the whole page
+     */
+    public List<WebElement> find(WebDriver driver, WebElement root) {
+        return elements(run(driver, root).get("all"));
+    }
+
+    public Map<String, List<WebElement>> findEach(WebDriver driver) {
+        return findEach(driver, null);
+    }
+
+    /**
+     * The matches of every term from one pass, keyed by the term as given, in the order given.
+     *
+     * @param root element to search below; null for the whole page
+     */
+    public Map<String, List<WebElement>> findEach(WebDriver driver, WebElement root) {
+        Object raw = run(driver, root).get("each");
+        List<?> each = raw instanceof List ? (List<?>) raw : List.of();
+        Map<String, List<WebElement>> byTerm = new LinkedHashMap<>();
+        for (int i = 0; i < terms.size(); i++) {
+            byTerm.put(given.get(i), elements(i < each.size() ? each.get(i) : null));
+        }
+        return byTerm;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> run(WebDriver driver, WebElement root) {
+        Object raw = ((JavascriptExecutor) driver).executeScript(FIND_SCRIPT, terms, onlyVisible, root);
+        return raw instanceof Map ? (Map<String, Object>) raw : Map.of();
+    }
+
+    private static List<WebElement> elements(Object raw) {
+        List<WebElement> elements = new ArrayList<>();
+        if (raw instanceof List) {
+            for (Object element : (List<?>) raw) {
+                if (element instanceof WebElement) {
+                    elements.add((WebElement) element);
+                }
+            }
+        }
+        return elements;
+    }
+
+    @Override
+    public String toString() {
+        return "text containing " + String.join(" | ", given) + (onlyVisible ? " (visible)" : "");
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Waits until the TaxMind front end (Vue 2 + Vuetify) has nothing left to do, instead of
+ * sleeping for a worst-case guess.
+ *
+ * The UI counts as idle when, for a short quiet window:
+ * <ul>
+ *   <li>the document has finished loading,</li>
+ *   <li>no XHR/fetch started by the page is still pending (counted by a small hook that
+ *       {@link #attach} adds to every new document before its scripts run; without DevTools
+ *       it is installed on first check and misses the calls made before that),</li>
+ *   <li>no indeterminate v-progress bar/spinner or skeleton loader is showing, and no
+ *       v-overlay is up unless it belongs to an open dialog,</li>
+ *   <li>no Vue enter/leave transition or finite CSS animation is running, and</li>
+ *   <li>vue-router has no pending navigation.</li>
+ * </ul>
+ */
+public final class UiIdle {
+    public static final Duration DEFAULT_BUDGET = Duration.ofSeconds(10);
+    private static final long POLL_INTERVAL_MS = 50;
+    /** How long the UI has to stay idle before we trust it. */
+    private static final long QUIET_WINDOW_MS = 150;
+
+    private static final String HOOK_SCRIPT =
+        "(function (w) {"
+            + "  if (w.__tmIdle) { return; }"
+            + "  var st = w.__tmIdle = { pending: 0 };"
+            + "  var done = function () { st.pending = Math.max(0, st.pending - 1); };"
+            + "  if (w.XMLHttpRequest) {"
+            + "    var send = w.XMLHttpRequest.prototype.send;"
+            + "    w.XMLHttpRequest.prototype.send = function () {"
+            + "      st.pending++; var finished = false;"
+            + "      this.addEventListener('loadend', function () { if (!finished) { finished = true; done(); } });"
+            + "      try { return send.apply(this, arguments); } catch (e) { if (!finished) { finished = true; done(); } throw e; }"
+            + "    };"
+            + "  }"
+            + "  if (w.fetch) {"
+            + "    var originalFetch = w.fetch;"
+            + "    w.fetch = function () {"
+            + "      st.pending++;"
+            + "      try { var p = originalFetch.apply(this, arguments); p.then(done, done); return p; } catch (e) { done(); throw e; }"
+            + "    };"
+            + "  }"
+            + "})(window);";
+
+    private static final String BUSY_REASONS_SCRIPT =
+        HOOK_SCRIPT
+            + "var w = window, reasons = [];"
+            + "if (document.readyState !== 'complete') { reasons.push('document ' + document.readyState); }"
+            + "if (w.__tmIdle.pending > 0) { reasons.push(w.__tmIdle.pending + ' request(s) pending'); }"
+            + "var shown = function (el) { return el.getClientRects().length > 0 && w.getComputedStyle(el).visibility !== 'hidden'; };"
+            + "var loaders = document.querySelectorAll('.v-progress-circular--indeterminate, .v-progress-linear__indeterminate, .v-skeleton-loader');"
+            + "for (var i = 0; i < loaders.length; i++) { if (shown(loaders[i])) { reasons.push('loader ' + loaders[i].className); break; } }"
+            + "if (document.querySelector('.v-overlay--active') && !document.querySelector('.v-dialog--active')) { reasons.push('overlay'); }"
+            + "if (document.querySelector('[class*=\"-enter-active\"], [class*=\"-leave-active\"]')) { reasons.push('vue transition'); }"
+            + "if (document.getAnimations) {"
+            + "  var running = document.getAnimations().filter(function (a) {"
+            + "    return a.playState === 'running' && a.effect && a.effect.getTiming().iterations !== Infinity; });"
+            + "  if (running.length > 0) { reasons.push(running.length + ' animation(s)'); }"
+            + "}"
+            + "try {"
+            + "  var app = document.querySelector('[data-app]') || document.getElementById('app');"
+            + "  var router = app && app.__vue__ && app.__vue__.$root.$router;"
+            + "  if (router && router.history && router.history.pending) { reasons.push('router navigation'); }"
+            + "} catch (e) {}"
+            + "return reasons;";
+
+    private UiIdle() {
+    }
+
+    /**
+     * Count requests in every document the session loads from now on, from its first script
+     * on, so the ones made while a page loads or right after a click are not missed.
+     */
+    public static void attach(WebDriver driver) {
+        DevTools devTools = Cdp.session(driver);
+        if (devTools == null) {
+            return;
+        }
+        try {
+            devTools.send(new Command<>("Page.enable", Map.of()));
+            devTools.send(new Command<>("Page.addScriptToEvaluateOnNewDocument", Map.of("source", HOOK_SCRIPT)));
+        } catch (Exception e) {
+            System.out.println("[ui-idle] Not hooking new documents: " + e.getMessage());
+        }
+    }
+
+    public static boolean waitForUiIdle(WebDriver driver) {
+        return waitForUiIdle(driver, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Block until the UI is idle or the budget runs out. Never throws: on timeout the caller
+     * simply carries on, as it would have after a fixed sleep.
+     *
+     * @return true if the UI went idle within the budget
+     */
+    public static boolean waitForUiIdle(WebDriver driver, Duration budget) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        long idleSince = -1;
+        List<?> reasons = null;
+        while (true) {
+            reasons = busyReasons(driver);
+            long now = System.nanoTime();
+            if (reasons != null && reasons.isEmpty()) {
+                if (idleSince < 0) {
+                    idleSince = now;
+                } else if (now - idleSince >= QUIET_WINDOW_MS * 1_000_000L) {
+                    return true;
+                }
+            } else {
+                idleSince = -1;
+            }
+            if (now >= deadline) {
+                System.out.println("[ui-idle] UI still busy after " + budget.toMillis() + "ms: " + reasons);
+                return false;
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return why the UI is busy (empty when idle), or null when the page could not be asked,
+     * e.g. mid-navigation
+     */
+    private static List<?> busyReasons(WebDriver driver) {
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(BUSY_REASONS_SCRIPT);
+            return result instanceof List ? (List<?>) result : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Launch profile for every test in the annotated class, e.g.
+ * {@code @UseBrowserProfile(BrowserProfile.LEAN)}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Inherited
+public @interface UseBrowserProfile {
+    BrowserProfile value();
+}
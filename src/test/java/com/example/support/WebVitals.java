@@ -0,0 +1,81 @@
+package com.example.support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+
+import java.util.Map;
+
+/**
+ * Core Web Vitals for every page a session shows, from a PerformanceObserver that is added to
+ * each new document over CDP.
+ *
+ * The observer keeps LCP, CLS (largest session window), INP (slowest interaction; with the
+ * handful of interactions a test makes this is the 98th percentile) and long tasks with their
+ * total blocking time. {@link PageTiming} takes the values with each collection and restarts
+ * them, so a client-side route change reports only what happened since the previous page;
+ * LCP is not defined for route changes and is reported as null. Budgets for these values
+ * are checked by {@link PerfBudgets}.
+ */
+public final class WebVitals {
+    static final String OBSERVER_SCRIPT =
+        "(function () {"
+            + "  if (window.__tmVitals || typeof PerformanceObserver === 'undefined') { return; }"
+            + "  var v = { lcpMs: null, cls: 0, inpMs: 0, longTasks: 0, tbtMs: 0, since: 0 };"
+            + "  var windowSum = 0, windowStart = -1, windowLast = -1;"
+            + "  var observe = function (options, onEntry) {"
+            + "    try { new PerformanceObserver(function (list) { list.getEntries().forEach(onEntry); }).observe(options); } catch (e) {}"
+            + "  };"
+            + "  observe({ type: 'largest-contentful-paint', buffered: true }, function (e) {"
+            + "    if (v.since === 0) { v.lcpMs = Math.round(e.renderTime || e.loadTime || e.startTime); }"
+            + "  });"
+            + "  observe({ type: 'layout-shift', buffered: true }, function (e) {"
+            + "    if (e.hadRecentInput || e.startTime < v.since) { return; }"
+            + "    if (windowStart < 0 || e.startTime - windowLast > 1000 || e.startTime - windowStart > 5000) {"
+            + "      windowSum = 0; windowStart = e.startTime;"
+            + "    }"
+            + "    windowSum += e.value; windowLast = e.startTime;"
+            + "    v.cls = Math.max(v.cls, windowSum);"
+            + "  });"
+            + "  observe({ type: 'event', buffered: true, durationThreshold: 16 }, function (e) {"
+            + "    if (e.interactionId && e.startTime >= v.since) { v.inpMs = Math.max(v.inpMs, Math.round(e.duration)); }"
+            + "  });"
+            + "  observe({ type: 'longtask', buffered: true }, function (e) {"
+            + "    if (e.startTime < v.since) { return; }"
+            + "    v.longTasks++; v.tbtMs += Math.max(0, Math.round(e.duration) - 50);"
+            + "  });"
+            + "  window.__tmVitals = v;"
+            + "  window.__tmVitalsTake = function () {"
+            + "    var taken = { lcpMs: v.lcpMs, cls: Math.round(v.cls * 1000) / 1000, inpMs: v.inpMs, longTasks: v.longTasks, tbtMs: v.tbtMs };"
+            + "    v.since = performance.now(); v.lcpMs = null; v.cls = 0; v.inpMs = 0; v.longTasks = 0; v.tbtMs = 0;"
+            + "    windowSum = 0; windowStart = -1; windowLast = -1;"
+            + "    return taken;"
+            + "  };"
+            + "})();";
+
+    private WebVitals() {
+    }
+
+    /**
+     * Observe vitals in every document the session loads from now on, and in the current one.
+     * Without DevTools only the current document is observed.
+     */
+    public static void attach(WebDriver driver) {
+        DevTools devTools = Cdp.session(driver);
+        if (devTools != null) {
+            try {
+                devTools.send(new Command<>("Page.enable", Map.of()));
+                devTools.send(new Command<>("Page.addScriptToEvaluateOnNewDocument", Map.of("source", OBSERVER_SCRIPT)));
+            } catch (Exception e) {
+                System.out.println("[web-vitals] Not observing new documents: " + e.getMessage());
+            }
+        }
+        if (driver instanceof JavascriptExecutor) {
+            try {
+                ((JavascriptExecutor) driver).executeScript(OBSERVER_SCRIPT);
+            } catch (Exception ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+// Shared behaviour of the stand-in pages: cookie banner, user menu, JSON API calls.
+(function () {
+  window.api = function (method, path, body) {
+    return fetch(path, {
+      method: method,
+      headers: { 'Content-Type': 'application/json' },
+      credentials: 'same-origin',
+      body: body === undefined ? undefined : JSON.stringify(body)
+    }).then(function (r) {
+      if (!r.ok) { throw new Error(method + ' ' + path + ' -> ' + r.status); }
+      return r.json();
+    });
+  };
+
+  window.showLoading = function (on) {
+    var bar = document.getElementById('loading');
+    if (bar) { bar.className = on ? 'v-progress-linear__indeterminate' : ''; }
+  };
+
+  document.addEventListener('DOMContentLoaded', function () {
+    var accept = document.getElementById('accept');
+    if (accept) {
+      accept.addEventListener('click', function () { document.querySelector('.cookie-banner').remove(); });
+    }
+    var userButton = document.getElementById('user-menu');
+    var menu = document.querySelector('.v-menu__content');
+    if (userButton && menu) {
+      userButton.addEventListener('click', function () {
+        var open = menu.classList.toggle('menuable__content__active');
+        userButton.setAttribute('aria-expanded', String(open));
+      });
+    }
+    var logout = document.getElementById('logout');
+    if (logout) {
+      logout.addEventListener('click', function () {
+        api('POST', '/api/logout', {}).then(function () { location.href = '/'; });
+      });
+    }
+  });
+})();